@@ -0,0 +1,134 @@
+package edu.miu.mongodemo.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.miu.mongodemo.controller.WebSocketArticleController;
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.ArticlePatch;
+import edu.miu.mongodemo.repository.ArticleRepository;
+import edu.miu.mongodemo.service.ArticleService;
+import edu.miu.mongodemo.service.PersonReferenceLoader;
+import edu.miu.mongodemo.service.ViewCountBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArticleService CRUD paths against an in-memory repository
+ *
+ * Runs the real service beans in a small Spring context, so the @Cacheable /
+ * @CacheEvict proxies, the write-behind view buffer and the WebSocket
+ * broadcast (serialized to JSON, sent to a no-op channel) are all included.
+ * MongoDB itself is replaced by {@link InMemoryArticleRepository}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArticleServiceBenchmark {
+
+    @Param({"true", "false"})
+    private boolean writeBehindViews;
+
+    private AnnotationConfigApplicationContext context;
+    private ArticleService articleService;
+    private String articleId;
+    private ArticlePatch patch;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Map.of("articles.views.write-behind.enabled", String.valueOf(writeBehindViews))));
+        context.register(ServiceConfig.class);
+        context.refresh();
+
+        articleService = context.getBean(ArticleService.class);
+        articleId = articleService.createArticle(BenchmarkData.article()).getId();
+
+        patch = new ArticlePatch();
+        patch.setStatus("ARCHIVED");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Article createArticle() {
+        Article article = BenchmarkData.article();
+        article.setId(null);
+        return articleService.createArticle(article);
+    }
+
+    @Benchmark
+    public Article getArticleById() {
+        return articleService.getArticleById(articleId).orElseThrow();
+    }
+
+    @Benchmark
+    public Article patchArticle() {
+        return articleService.patchArticle(articleId, patch).orElseThrow();
+    }
+
+    @Benchmark
+    public Article incrementViewCount() {
+        return articleService.incrementViewCount(articleId).orElseThrow();
+    }
+
+    @Configuration
+    @EnableCaching
+    @Import({ArticleService.class, ViewCountBuffer.class, PersonReferenceLoader.class, WebSocketArticleController.class})
+    static class ServiceConfig {
+
+        @Bean
+        ArticleRepository articleRepository() {
+            return InMemoryArticleRepository.create();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(ArticleService.ARTICLE_CACHE);
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(5, TimeUnit.MINUTES));
+            return cacheManager;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        SimpMessagingTemplate simpMessagingTemplate() {
+            SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true);
+            template.setMessageConverter(new MappingJackson2MessageConverter(Jackson2ObjectMapperBuilder.json().build()));
+            return template;
+        }
+
+        /**
+         * Only used to resolve lazy person references, which in-memory articles never have
+         */
+        @Bean
+        MongoTemplate mongoTemplate() {
+            return Mockito.mock(MongoTemplate.class);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package edu.miu.mongodemo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against a stored baseline
+ *
+ * Prints one row per benchmark (and parameter combination) with the baseline
+ * score, the current score and the change in percent, where a positive change
+ * is always an improvement: higher is better for throughput mode, lower is
+ * better for all time-per-operation modes.
+ *
+ * Fails (non-zero exit from exec:java) when any benchmark regressed by more
+ * than the threshold percentage. A missing baseline is not an error: the
+ * comparison is skipped with a note on how to record one, so the first run on
+ * a new machine only produces the result file. A missing result file is an
+ * error, since the benchmarks were not run.
+ *
+ * Usage: BenchmarkComparison baseline.json result.json [thresholdPercent]
+ */
+public class BenchmarkComparison {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: BenchmarkComparison baseline.json result.json [thresholdPercent]");
+        }
+        Path baselineFile = Path.of(args[0]);
+        Path resultFile = Path.of(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        if (!Files.exists(resultFile)) {
+            throw new IllegalStateException("No benchmark result at " + resultFile
+                    + "; run ./mvnw -P benchmark test-compile exec:exec@run first");
+        }
+        if (!Files.exists(baselineFile)) {
+            System.out.printf("Skipping comparison: no baseline at %s.%n"
+                    + "To record one (see BENCHMARK_GUIDE.md, \"Recording a Baseline\"):%n"
+                    + "  mkdir -p %s && cp %s %s%n",
+                    baselineFile, baselineFile.toAbsolutePath().getParent(), resultFile, baselineFile);
+            return;
+        }
+
+        Map<String, Score> baseline = read(baselineFile);
+        Map<String, Score> current = read(resultFile);
+
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.unit().equals(now.unit())) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.value(), "new", now.unit());
+                continue;
+            }
+            double change = now.improvementOver(before) + 0.0; // no "-0.0%"
+            boolean regressed = change < -threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.value(), now.value(),
+                    change, now.unit(), regressed ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s (not run)%n", key));
+
+        if (regressions > 0) {
+            throw new IllegalStateException(regressions + " benchmark(s) regressed by more than " + threshold + "%");
+        }
+    }
+
+    /**
+     * Scores keyed by benchmark name plus its parameters, e.g. "StompBroadcastBenchmark.broadcastViewCount{subscribers=100}"
+     */
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : MAPPER.readTree(file.toFile())) {
+            String benchmark = run.path("benchmark").asText();
+            String key = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+
+            Map<String, String> params = new LinkedHashMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            if (!params.isEmpty()) {
+                key += params.toString().replace(", ", ",");
+            }
+
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key, new Score(run.path("mode").asText(), metric.path("score").asDouble(),
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private record Score(String mode, double value, String unit) {
+
+        /**
+         * Percent improvement of this score over the baseline (negative means a regression)
+         */
+        double improvementOver(Score baseline) {
+            double change = (value - baseline.value) / baseline.value * 100;
+            return "thrpt".equals(mode) ? change : -change;
+        }
+    }
+}
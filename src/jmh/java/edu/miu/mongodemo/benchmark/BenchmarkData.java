@@ -0,0 +1,64 @@
+package edu.miu.mongodemo.benchmark;
+
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
+import edu.miu.mongodemo.model.News;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Representative documents shared by the benchmarks
+ *
+ * Sizes roughly match production content: a few KB of article body,
+ * a long-form news story and a short comment.
+ */
+final class BenchmarkData {
+
+    private static final String PARAGRAPH = "MongoDB is a document database designed for ease of application "
+            + "development and scaling. Spring Data MongoDB provides a familiar programming model on top of it, "
+            + "with repositories, templates and object mapping. ";
+
+    private BenchmarkData() {
+    }
+
+    static Article article() {
+        Article article = new Article("Introduction to Spring Boot", PARAGRAPH.repeat(20), "John Doe");
+        article.setId("665f1c2e9b1e8a3d4c2b1a00");
+        article.setTags(List.of("Spring", "Java", "Framework", "MongoDB"));
+        article.setStatus("PUBLISHED");
+        article.setViewCount(1500);
+        article.setPublishedDate(LocalDateTime.of(2024, 5, 1, 10, 15, 30));
+        return article;
+    }
+
+    static News news() {
+        News news = new News(
+                "Breaking: New Technology Breakthrough in AI",
+                PARAGRAPH,
+                PARAGRAPH.repeat(40),
+                "Sarah Williams",
+                "TECHNOLOGY");
+        news.setId("665f1c2e9b1e8a3d4c2b1b00");
+        news.setPriority(9);
+        news.setImageUrl("https://example.com/images/ai-breakthrough.jpg");
+        news.setPublishedDate(LocalDateTime.of(2024, 5, 1, 8, 0));
+        news.setExpiryDate(LocalDateTime.of(2024, 6, 1, 8, 0));
+        news.setRelatedNewsIds(List.of("665f1c2e9b1e8a3d4c2b1b01", "665f1c2e9b1e8a3d4c2b1b02"));
+        return news;
+    }
+
+    static Comment comment() {
+        Comment comment = new Comment(
+                "665f1c2e9b1e8a3d4c2b1a00",
+                ContentType.ARTICLE,
+                "Alice Brown",
+                "Great article! Very helpful for beginners. Could you expand on the dependency injection section?");
+        comment.setId("665f1c2e9b1e8a3d4c2b1c00");
+        comment.setLikes(5);
+        comment.setIsApproved(true);
+        comment.setCreatedAt(LocalDateTime.of(2024, 5, 2, 9, 30));
+        return comment;
+    }
+}
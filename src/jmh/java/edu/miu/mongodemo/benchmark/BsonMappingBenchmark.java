@@ -0,0 +1,91 @@
+package edu.miu.mongodemo.benchmark;
+
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.News;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Object-to-BSON mapping cost through MappingMongoConverter
+ *
+ * This is the per-document CPU cost Spring Data adds on every read and write,
+ * independent of network and server time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BsonMappingBenchmark {
+
+    private MappingMongoConverter converter;
+    private Article article;
+    private News news;
+    private Comment comment;
+    private Document articleDocument;
+    private Document newsDocument;
+    private Document commentDocument;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(java.util.List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        article = BenchmarkData.article();
+        news = BenchmarkData.news();
+        comment = BenchmarkData.comment();
+        articleDocument = write(article);
+        newsDocument = write(news);
+        commentDocument = write(comment);
+    }
+
+    @Benchmark
+    public Document writeArticle() {
+        return write(article);
+    }
+
+    @Benchmark
+    public Article readArticle() {
+        return converter.read(Article.class, articleDocument);
+    }
+
+    @Benchmark
+    public Document writeNews() {
+        return write(news);
+    }
+
+    @Benchmark
+    public News readNews() {
+        return converter.read(News.class, newsDocument);
+    }
+
+    @Benchmark
+    public Document writeComment() {
+        return write(comment);
+    }
+
+    @Benchmark
+    public Comment readComment() {
+        return converter.read(Comment.class, commentDocument);
+    }
+
+    private Document write(Object source) {
+        Document document = new Document();
+        converter.write(source, document);
+        return document;
+    }
+}
@@ -0,0 +1,106 @@
+package edu.miu.mongodemo.benchmark;
+
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.repository.ArticleRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stand-in for ArticleRepository
+ *
+ * Lets the service benchmarks measure ArticleService itself (caching, view
+ * buffering, WebSocket broadcasting) without a MongoDB server. Only the
+ * repository methods used by the benchmarked service paths are implemented;
+ * anything else throws UnsupportedOperationException.
+ */
+final class InMemoryArticleRepository implements InvocationHandler {
+
+    private final Map<String, Article> articles = new ConcurrentHashMap<>();
+
+    private InMemoryArticleRepository() {
+    }
+
+    static ArticleRepository create() {
+        return (ArticleRepository) Proxy.newProxyInstance(
+                ArticleRepository.class.getClassLoader(),
+                new Class<?>[] {ArticleRepository.class},
+                new InMemoryArticleRepository());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "save": {
+                Article article = (Article) args[0];
+                if (article.getId() == null) {
+                    article.setId(new ObjectId().toHexString());
+                }
+                articles.put(article.getId(), article);
+                return article;
+            }
+            case "findById":
+                return Optional.ofNullable(articles.get((String) args[0]));
+            case "existsById":
+                return articles.containsKey((String) args[0]);
+            case "deleteById":
+                articles.remove((String) args[0]);
+                return null;
+            case "count":
+                return (long) articles.size();
+            case "incrementViewCount":
+                return increment((String) args[0], (Integer) args[1]);
+            case "incrementViewCountOnly": {
+                Article article = increment((String) args[0], (Integer) args[1]);
+                return article != null ? article.getViewCount() : null;
+            }
+            case "findViewCount": {
+                Article article = articles.get((String) args[0]);
+                return article != null ? article.getViewCount() : null;
+            }
+            case "findViewCounts":
+                return ((Collection<String>) args[0]).stream()
+                        .map(articles::get)
+                        .filter(Objects::nonNull)
+                        .toList();
+            case "updateFields": {
+                Article article = articles.computeIfPresent((String) args[0], (id, current) -> {
+                    Article updated = new Article(current);
+                    BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(updated);
+                    ((Map<String, Object>) args[1]).forEach(wrapper::setPropertyValue);
+                    return updated;
+                });
+                return args.length == 3 ? article : article != null;
+            }
+            case "incrementViewCounts":
+                ((Map<String, Integer>) args[0]).forEach(this::increment);
+                return null;
+            case "toString":
+                return "InMemoryArticleRepository";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                throw new UnsupportedOperationException(method.getName() + " is not supported by the in-memory repository");
+        }
+    }
+
+    private Article increment(String id, int delta) {
+        return articles.computeIfPresent(id, (key, current) -> {
+            Article updated = new Article(current);
+            updated.setViewCount(current.getViewCount() + delta);
+            return updated;
+        });
+    }
+}
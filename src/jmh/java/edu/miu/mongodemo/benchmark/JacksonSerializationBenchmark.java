@@ -0,0 +1,60 @@
+package edu.miu.mongodemo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.News;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization cost of the REST payloads
+ *
+ * Uses an ObjectMapper configured like Spring Boot's (JavaTimeModule,
+ * ISO dates instead of timestamps).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Article article;
+    private News news;
+    private Comment comment;
+    private byte[] articleJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        article = BenchmarkData.article();
+        news = BenchmarkData.news();
+        comment = BenchmarkData.comment();
+        articleJson = objectMapper.writeValueAsBytes(article);
+    }
+
+    @Benchmark
+    public byte[] serializeArticle() throws Exception {
+        return objectMapper.writeValueAsBytes(article);
+    }
+
+    @Benchmark
+    public byte[] serializeNews() throws Exception {
+        return objectMapper.writeValueAsBytes(news);
+    }
+
+    @Benchmark
+    public byte[] serializeComment() throws Exception {
+        return objectMapper.writeValueAsBytes(comment);
+    }
+
+    @Benchmark
+    public Article deserializeArticle() throws Exception {
+        return objectMapper.readValue(articleJson, Article.class);
+    }
+}
@@ -0,0 +1,86 @@
+package edu.miu.mongodemo.benchmark;
+
+import edu.miu.mongodemo.controller.WebSocketArticleController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP broadcast fan-out through SimpMessagingTemplate and the simple broker
+ *
+ * Mirrors WebSocketConfig's in-memory broker: one convertAndSend to a /topic
+ * destination is serialized once and copied to every subscribed session.
+ * Channels are synchronous and the outbound handler only consumes the message,
+ * so this measures broker and conversion cost, not socket I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StompBroadcastBenchmark {
+
+    private static final String DESTINATION = "/topic/article/665f1c2e9b1e8a3d4c2b1a00/views";
+
+    @Param({"1", "100", "1000"})
+    private int subscribers;
+
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketArticleController.ViewCountUpdateDTO payload;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+
+        ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        clientOutboundChannel.subscribe((MessageHandler) message -> this.blackhole.consume(message));
+
+        broker = new SimpleBrokerMessageHandler(
+                clientInboundChannel, clientOutboundChannel, brokerChannel, List.of("/topic"));
+        broker.start();
+
+        for (int i = 0; i < subscribers; i++) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            headers.setSessionId("session-" + i);
+            headers.setSubscriptionId("subscription-" + i);
+            headers.setDestination(DESTINATION);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders()));
+        }
+
+        messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+        messagingTemplate.setMessageConverter(
+                new MappingJackson2MessageConverter(Jackson2ObjectMapperBuilder.json().build()));
+
+        payload = new WebSocketArticleController.ViewCountUpdateDTO();
+        payload.setArticleId("665f1c2e9b1e8a3d4c2b1a00");
+        payload.setViewCount(1500);
+        payload.setTimestamp(LocalDateTime.of(2024, 5, 1, 10, 15, 30));
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public void broadcastViewCount() {
+        messagingTemplate.convertAndSend(DESTINATION, payload);
+    }
+}
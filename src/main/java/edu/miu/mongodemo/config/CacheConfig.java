@@ -0,0 +1,36 @@
+package edu.miu.mongodemo.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.miu.mongodemo.service.NewsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caches that need their own settings
+ *
+ * spring.cache.caffeine.spec applies to every cache created from
+ * spring.cache.cache-names; caches registered here get their own expiry.
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * News facet counts: evicted on every news write, the short TTL only
+     * catches stories that expire or are written by something else
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> newsFacetsCache(
+            @Value("${news.facets.cache-ttl:PT30S}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(NewsService.NEWS_FACETS_CACHE,
+                Caffeine.newBuilder()
+                        .maximumSize(1)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build());
+    }
+}
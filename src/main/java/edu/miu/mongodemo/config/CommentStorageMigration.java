@@ -0,0 +1,188 @@
+package edu.miu.mongodemo.config;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migrates the comments collection to the compact storage layout
+ *
+ * Comments used to be stored under their full property names (contentId,
+ * contentType, isApproved, ...); {@link Comment} now maps every property to a
+ * short alias with @Field, and stores the short @TypeAlias instead of the
+ * class name in _class. This migration:
+ * 1. Drops the indexes that reference the old field names (the compact indexes
+ *    are created by index auto-creation / MongoIndexVerifier).
+ * 2. Walks the collection in _id order and renames the old fields, upper-cases
+ *    legacy content types ("article", "News") and sets the type alias of every
+ *    batch of documents that still needs it, one pipeline updateMany per batch.
+ * 3. Logs how many comments are left with a content type that maps to no
+ *    {@link ContentType}, since those cannot be read.
+ *
+ * The old names are derived from the mapping (they are the property names), so
+ * nothing has to be kept in sync here when a field alias changes. Documents
+ * already in the compact layout are skipped, so running it again is a no-op.
+ *
+ * Runs once all singletons exist but before the web server starts taking
+ * requests, so no request sees a half-migrated collection.
+ */
+@Component
+public class CommentStorageMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentStorageMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${comments.storage.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${comments.storage.migration.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            migrate();
+        } catch (Exception e) {
+            logger.error("Comment storage migration failed; it resumes on the next start", e);
+        }
+    }
+
+    /**
+     * Rewrites all comments still stored with the old field names or type key
+     *
+     * @return number of documents rewritten
+     */
+    public long migrate() {
+        Map<String, String> renames = legacyFieldNames();
+        String contentTypeField = contentTypeFieldName();
+        MongoCollection<Document> comments = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Comment.class));
+
+        dropLegacyIndexes(comments, renames);
+
+        List<String> contentTypes = Comment.CONTENT_TYPES.stream().map(ContentType::name).toList();
+        List<Bson> legacyClauses = new ArrayList<>(renames.keySet().stream().map(Filters::exists).toList());
+        legacyClauses.add(Filters.ne("_class", Comment.TYPE_ALIAS));
+        // Content types stored in another case, e.g. "article" or "News"
+        legacyClauses.add(Filters.and(
+                Filters.nin(contentTypeField, contentTypes),
+                Filters.expr(new Document("$in", List.of(
+                        new Document("$toUpper", "$" + contentTypeField), contentTypes)))));
+        Bson legacy = Filters.or(legacyClauses);
+        List<Bson> update = migrationPipeline(renames, contentTypeField);
+
+        long migrated = 0;
+        Object lastId = null;
+        while (true) {
+            // Continuing after the last _id keeps every batch an _id index range
+            // instead of rescanning the already migrated documents
+            Bson filter = lastId == null ? legacy : Filters.and(Filters.gt("_id", lastId), legacy);
+            List<Object> ids = comments.find(filter)
+                    .projection(Projections.include("_id"))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(batchSize)
+                    .map(document -> document.get("_id"))
+                    .into(new ArrayList<>());
+            if (ids.isEmpty()) {
+                break;
+            }
+            migrated += comments.updateMany(Filters.in("_id", ids), update).getModifiedCount();
+            lastId = ids.get(ids.size() - 1);
+            logger.debug("Migrated {} comments to the compact layout so far", migrated);
+        }
+
+        if (migrated > 0) {
+            logger.info("Migrated {} comments to the compact storage layout", migrated);
+        }
+        long unmapped = comments.countDocuments(Filters.nin(contentTypeField, contentTypes));
+        if (unmapped > 0) {
+            logger.warn("{} comments have no contentType or one that is not one of {} and cannot be read; fix them by hand",
+                    unmapped, contentTypes);
+        }
+        return migrated;
+    }
+
+    /**
+     * Update pipeline that renames the old fields, upper-cases the content type
+     * and sets the type alias, in one pass per document
+     *
+     * A pipeline rather than $rename because $toUpper needs the (renamed) value.
+     * An old field, when present, wins over the alias, as with $rename.
+     */
+    private List<Bson> migrationPipeline(Map<String, String> renames, String contentTypeField) {
+        Document renamed = new Document("_class", new Document("$literal", Comment.TYPE_ALIAS));
+        renames.forEach((oldName, alias) -> renamed.append(alias, new Document("$cond", List.of(
+                new Document("$eq", List.of(new Document("$type", "$" + oldName), "missing")),
+                "$" + alias,
+                "$" + oldName))));
+
+        Document normalized = new Document(contentTypeField, new Document("$cond", List.of(
+                new Document("$eq", List.of(new Document("$type", "$" + contentTypeField), "string")),
+                new Document("$toUpper", "$" + contentTypeField),
+                "$" + contentTypeField)));
+
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$set", renamed));
+        pipeline.add(new Document("$set", normalized));
+        if (!renames.isEmpty()) {
+            pipeline.add(new Document("$unset", new ArrayList<>(renames.keySet())));
+        }
+        return pipeline;
+    }
+
+    private String contentTypeFieldName() {
+        return mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Comment.class)
+                .getRequiredPersistentProperty("contentType")
+                .getFieldName();
+    }
+
+    /**
+     * Old (property) name to stored alias of every Comment property that has one
+     */
+    private Map<String, String> legacyFieldNames() {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Comment.class);
+        Map<String, String> renames = new LinkedHashMap<>();
+        for (MongoPersistentProperty property : entity) {
+            if (!property.isIdProperty() && !property.getName().equals(property.getFieldName())) {
+                renames.put(property.getName(), property.getFieldName());
+            }
+        }
+        return renames;
+    }
+
+    private void dropLegacyIndexes(MongoCollection<Document> comments, Map<String, String> renames) {
+        for (Document index : comments.listIndexes()) {
+            Document key = index.get("key", Document.class);
+            if (key.keySet().stream().anyMatch(renames::containsKey)) {
+                String name = index.getString("name");
+                comments.dropIndex(name);
+                logger.info("Dropped index '{}' {} on old comment field names", name, key.toJson());
+            }
+        }
+    }
+}
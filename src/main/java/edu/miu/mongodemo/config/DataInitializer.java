@@ -2,9 +2,11 @@ package edu.miu.mongodemo.config;
 
 import edu.miu.mongodemo.model.Article;
 import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
 import edu.miu.mongodemo.model.News;
 import edu.miu.mongodemo.repository.ArticleRepository;
 import edu.miu.mongodemo.repository.CommentRepository;
+import edu.miu.mongodemo.repository.CommentStatsRepository;
 import edu.miu.mongodemo.repository.NewsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -25,6 +27,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private NewsRepository newsRepository;
 
+    @Autowired
+    private CommentStatsRepository commentStatsRepository;
+
     @Override
     public void run(String... args) throws Exception {
         // Clear existing data (optional - remove if you want to keep data)
@@ -42,6 +47,10 @@ public class DataInitializer implements CommandLineRunner {
         if (commentRepository.count() == 0) {
             initializeComments();
         }
+        // Sample comments are saved through the repository, so derive their stats in one go
+        if (commentStatsRepository.count() == 0) {
+            commentStatsRepository.rebuild();
+        }
     }
 
     private void initializeArticles() {
@@ -148,7 +157,7 @@ public class DataInitializer implements CommandLineRunner {
         if (article1 != null) {
             Comment comment1 = new Comment(
                 article1.getId(),
-                "ARTICLE",
+                ContentType.ARTICLE,
                 "Alice Brown",
                 "Great article! Very helpful for beginners. Could you expand on the dependency injection section?"
             );
@@ -159,7 +168,7 @@ public class DataInitializer implements CommandLineRunner {
 
             Comment comment2 = new Comment(
                 article1.getId(),
-                "ARTICLE",
+                ContentType.ARTICLE,
                 "Charlie Davis",
                 "Thanks for sharing. I've been using Spring Boot for a while, and this covers the basics well."
             );
@@ -172,7 +181,7 @@ public class DataInitializer implements CommandLineRunner {
         if (article2 != null) {
             Comment comment3 = new Comment(
                 article2.getId(),
-                "ARTICLE",
+                ContentType.ARTICLE,
                 "Diana Foster",
                 "Excellent insights on MongoDB best practices. The indexing strategies section was particularly useful."
             );
@@ -185,7 +194,7 @@ public class DataInitializer implements CommandLineRunner {
         if (news1 != null) {
             Comment comment4 = new Comment(
                 news1.getId(),
-                "NEWS",
+                ContentType.NEWS,
                 "George Harris",
                 "This is incredible! I can't wait to see how this technology develops. What are the potential ethical concerns?"
             );
@@ -196,7 +205,7 @@ public class DataInitializer implements CommandLineRunner {
 
             Comment comment5 = new Comment(
                 news1.getId(),
-                "NEWS",
+                ContentType.NEWS,
                 "Hannah Lee",
                 "Amazing breakthrough! This could have huge implications for various industries."
             );
@@ -207,7 +216,7 @@ public class DataInitializer implements CommandLineRunner {
 
             Comment comment6 = new Comment(
                 news1.getId(),
-                "NEWS",
+                ContentType.NEWS,
                 "Ian Murphy",
                 "I'm skeptical about these claims. We need to see more peer-reviewed research."
             );
@@ -0,0 +1,51 @@
+package edu.miu.mongodemo.config;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.News;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Gives articles and news written before they had a @Version field version 0
+ *
+ * Spring Data treats an entity with a null version as new, so saving a
+ * document read without one would try to insert it again. One updateMany per
+ * collection sets the missing versions; documents that have one don't match,
+ * so this is a no-op after the first run. Runs before the web server starts,
+ * like CommentStorageMigration.
+ */
+@Component
+public class DocumentVersionMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentVersionMigration.class);
+
+    private static final List<Class<?>> VERSIONED_MODELS = List.of(Article.class, News.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Class<?> model : VERSIONED_MODELS) {
+            String collection = mongoTemplate.getCollectionName(model);
+            try {
+                long versioned = mongoTemplate.getCollection(collection)
+                        .updateMany(Filters.exists("version", false), Updates.set("version", 0L))
+                        .getModifiedCount();
+                if (versioned > 0) {
+                    logger.info("Set the initial version of {} documents in '{}'", versioned, collection);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to set initial document versions in '{}'", collection, e);
+            }
+        }
+    }
+}
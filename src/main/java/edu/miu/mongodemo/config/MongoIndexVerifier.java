@@ -0,0 +1,262 @@
+package edu.miu.mongodemo.config;
+
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.CommentStats;
+import edu.miu.mongodemo.model.ContentType;
+import edu.miu.mongodemo.model.News;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoDB Index Verification
+ *
+ * Runs at startup and:
+ * 1. Compares the indexes declared with @Indexed/@CompoundIndex on each @Document
+ *    model against the indexes that exist in MongoDB, creates any that are missing,
+ *    drops retired ones and logs a per-collection report.
+ * 2. Optionally (mongo.indexes.check-query-plans=true) runs explain() on the query
+ *    shape of every repository finder and warns about any that would do a
+ *    collection scan (COLLSCAN) instead of using an index.
+ */
+@Component
+public class MongoIndexVerifier implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexVerifier.class);
+
+    private static final List<Class<?>> INDEXED_MODELS = List.of(Article.class, News.class, Comment.class, CommentStats.class);
+
+    /**
+     * Indexes that an earlier version declared and a newer declaration replaces;
+     * dropped when found so they don't cost write and cache overhead for nothing
+     */
+    private static final Map<Class<?>, List<String>> RETIRED_INDEXES = Map.of(
+            News.class, List.of("category_published", "reporter_published", "priority_published", "published"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Value("${mongo.indexes.check-query-plans:false}")
+    private boolean checkQueryPlans;
+
+    @Override
+    public void run(String... args) throws Exception {
+        for (Class<?> model : INDEXED_MODELS) {
+            verifyIndexes(model);
+        }
+        if (checkQueryPlans) {
+            checkQueryPlans();
+        }
+    }
+
+    /**
+     * Creates missing declared indexes for one model and logs the result
+     */
+    private void verifyIndexes(Class<?> model) {
+        String collection = mongoTemplate.getCollectionName(model);
+        IndexOperations indexOps = mongoTemplate.indexOps(model);
+
+        List<Document> existing = new ArrayList<>();
+        mongoTemplate.getCollection(collection).listIndexes().into(existing);
+        dropRetiredIndexes(model, indexOps, existing);
+
+        int present = 0;
+        List<String> created = new ArrayList<>();
+        for (IndexDefinition definition : IndexResolver.create(mappingContext).resolveIndexFor(model)) {
+            if (exists(definition, existing)) {
+                present++;
+            } else {
+                created.add(indexOps.createIndex(definition));
+            }
+        }
+
+        if (created.isEmpty()) {
+            logger.info("Indexes on '{}': {} declared, all present", collection, present);
+        } else {
+            logger.warn("Indexes on '{}': {} declared, {} were missing and have been created: {}",
+                    collection, present + created.size(), created.size(), created);
+        }
+    }
+
+    private static void dropRetiredIndexes(Class<?> model, IndexOperations indexOps, List<Document> existing) {
+        List<String> retired = RETIRED_INDEXES.getOrDefault(model, List.of());
+        existing.removeIf(index -> {
+            String name = index.getString("name");
+            if (!retired.contains(name)) {
+                return false;
+            }
+            indexOps.dropIndex(name);
+            logger.info("Dropped retired index '{}' on {}", name, model.getSimpleName());
+            return true;
+        });
+    }
+
+    private static boolean exists(IndexDefinition definition, List<Document> existing) {
+        Object name = definition.getIndexOptions().get("name");
+        for (Document index : existing) {
+            if (index.get("key", Document.class).equals(definition.getIndexKeys())
+                    || (name != null && name.equals(index.get("name")))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Explains the query shape of each repository finder and flags collection scans
+     *
+     * The shapes mirror the derived queries of ArticleRepository, NewsRepository
+     * and CommentRepository; keep them in sync when finders are added. They are
+     * written with property names and mapped to the stored field names (e.g. the
+     * short Comment aliases) before being explained, like the repositories do.
+     */
+    private void checkQueryPlans() {
+        Map<String, QueryProbe> probes = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        probes.put("ArticleRepository.findPage", probe(Article.class, new Query()
+                .with(Sort.by(Sort.Order.desc("publishedDate"), Sort.Order.desc("_id")))));
+        probes.put("ArticleRepository.findByAuthor", probe(Article.class, Query.query(Criteria.where("author").is("probe"))));
+        probes.put("ArticleRepository.findByStatus", probe(Article.class, Query.query(Criteria.where("status").is("probe"))));
+        probes.put("ArticleRepository.findByTagsContaining", probe(Article.class, Query.query(Criteria.where("tags").is("probe"))));
+        probes.put("ArticleRepository.findByTitleContainingIgnoreCase",
+                probe(Article.class, Query.query(Criteria.where("title").regex("probe", "i"))));
+        probes.put("ArticleRepository.searchText", probe(Article.class,
+                TextQuery.queryText(TextCriteria.forDefaultLanguage().matching("probe")).sortByScore()));
+
+        Criteria live = Criteria.where("expiryDate").not().lte(now);
+        probes.put("NewsRepository.findLive", probe(News.class, Query.query(live)
+                .with(Sort.by(Sort.Order.desc("publishedDate")))));
+        probes.put("NewsRepository.findLiveByCategory", probe(News.class,
+                Query.query(Criteria.where("category").is("probe")).addCriteria(live)));
+        probes.put("NewsRepository.findLiveByReporter", probe(News.class,
+                Query.query(Criteria.where("reporter").is("probe")).addCriteria(live)));
+        probes.put("NewsRepository.streamPublishedBetween", probe(News.class,
+                Query.query(Criteria.where("publishedDate").gte(now.minusDays(1)).lt(now)).addCriteria(live)
+                        .with(Sort.by(Sort.Order.asc("publishedDate")))));
+        probes.put("NewsRepository.findSummariesPublishedSince", probe(News.class,
+                Query.query(Criteria.where("publishedDate").gte(now.minusDays(7))).addCriteria(live)
+                        .with(Sort.by(Sort.Order.desc("publishedDate")))));
+        probes.put("NewsRepository.findLiveByPriorityGreaterThanEqual", probe(News.class,
+                Query.query(Criteria.where("priority").gte(5)).addCriteria(live)));
+        probes.put("NewsRepository.findLiveByHeadlineMatching", probe(News.class,
+                Query.query(Criteria.where("headline").regex("probe", "i")).addCriteria(live)));
+        probes.put("NewsRepository.searchText", probe(News.class,
+                TextQuery.queryText(TextCriteria.forDefaultLanguage().matching("probe")).sortByScore()));
+
+        probes.put("CommentRepository.findByContentId", probe(Comment.class, Query.query(Criteria.where("contentId").is("probe"))));
+        probes.put("CommentRepository.findByContentType", probe(Comment.class, Query.query(Criteria.where("contentType").is(ContentType.NEWS))));
+        probes.put("CommentRepository.findByAuthor", probe(Comment.class, Query.query(Criteria.where("author").is("probe"))));
+        probes.put("CommentRepository.findByIsApproved", probe(Comment.class, Query.query(Criteria.where("isApproved").is(false))));
+        probes.put("CommentRepository.findByContentIdAndContentType", probe(Comment.class,
+                Query.query(Criteria.where("contentId").is("probe").and("contentType").is(ContentType.NEWS))));
+        probes.put("CommentRepository.findThread(createdAt)", probe(Comment.class,
+                Query.query(Criteria.where("contentId").is("probe").and("contentType").in(Comment.CONTENT_TYPES))
+                        .with(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("_id")))));
+        probes.put("CommentRepository.findThread(likes)", probe(Comment.class,
+                Query.query(Criteria.where("contentId").is("probe").and("contentType").in(Comment.CONTENT_TYPES))
+                        .with(Sort.by(Sort.Order.desc("likes"), Sort.Order.desc("_id")))));
+        probes.put("CommentRepository.claimPending", probe(Comment.class,
+                Query.query(Criteria.where("isApproved").is(false).and("isRejected").is(null))
+                        .with(Sort.by(Sort.Order.asc("createdAt")))));
+        probes.put("CommentStatsRepository.findByContentIdIn", probe(CommentStats.class,
+                Query.query(Criteria.where("contentId").in("probe", "probe2"))));
+
+        int collectionScans = 0;
+        for (Map.Entry<String, QueryProbe> entry : probes.entrySet()) {
+            try {
+                if (usesCollectionScan(entry.getValue())) {
+                    collectionScans++;
+                    logger.warn("Query plan check: {} does a COLLSCAN on '{}' (filter: {})",
+                            entry.getKey(), entry.getValue().collection(), mappedFilter(entry.getValue()).toJson());
+                } else {
+                    logger.debug("Query plan check: {} uses an index", entry.getKey());
+                }
+            } catch (Exception e) {
+                logger.warn("Query plan check: could not explain {}", entry.getKey(), e);
+            }
+        }
+        logger.info("Query plan check finished: {} of {} repository queries do a collection scan",
+                collectionScans, probes.size());
+    }
+
+    private QueryProbe probe(Class<?> model, Query query) {
+        return new QueryProbe(model, mongoTemplate.getCollectionName(model), query);
+    }
+
+    private boolean usesCollectionScan(QueryProbe probe) {
+        Document find = new Document("find", probe.collection())
+                .append("filter", mappedFilter(probe));
+        if (!probe.query().getSortObject().isEmpty()) {
+            find.append("sort", queryMapper().getMappedSort(probe.query().getSortObject(), entityOf(probe)));
+        }
+        Document explain = mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        return queryPlanner != null && containsStage(queryPlanner.get("winningPlan"), "COLLSCAN");
+    }
+
+    /**
+     * Walks an explain plan tree (classic or SBE format) looking for a stage
+     */
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            for (Object child : document.values()) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List<?> list) {
+            for (Object child : list) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Document mappedFilter(QueryProbe probe) {
+        return queryMapper().getMappedObject(probe.query().getQueryObject(), entityOf(probe));
+    }
+
+    private QueryMapper queryMapper() {
+        return new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    private MongoPersistentEntity<?> entityOf(QueryProbe probe) {
+        return mappingContext.getPersistentEntity(probe.model());
+    }
+
+    private record QueryProbe(Class<?> model, String collection, Query query) {
+    }
+}
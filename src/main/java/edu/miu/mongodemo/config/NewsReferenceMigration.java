@@ -0,0 +1,52 @@
+package edu.miu.mongodemo.config;
+
+import com.mongodb.client.model.Filters;
+import edu.miu.mongodemo.model.News;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Converts News.relatedNewsIds stored as strings to ObjectIds
+ *
+ * Related ids used to be stored as plain strings, which never match the
+ * ObjectId _id of the stories they point to in a $graphLookup. One pipeline
+ * updateMany converts every element that is a valid ObjectId; anything else
+ * (e.g. the id of a story with a custom string _id) is kept as is. Stories
+ * already converted don't match the filter, so this is a no-op after the
+ * first run. Runs before the web server starts, like CommentStorageMigration.
+ */
+@Component
+public class NewsReferenceMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsReferenceMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            long converted = mongoTemplate.getCollection(mongoTemplate.getCollectionName(News.class)).updateMany(
+                    // $type matches arrays with at least one string element
+                    Filters.type("relatedNewsIds", "string"),
+                    List.of(new Document("$set", new Document("relatedNewsIds", new Document("$map",
+                            new Document("input", "$relatedNewsIds")
+                                    .append("in", new Document("$convert", new Document("input", "$$this")
+                                            .append("to", "objectId")
+                                            .append("onError", "$$this"))))))))
+                    .getModifiedCount();
+            if (converted > 0) {
+                logger.info("Converted the related news ids of {} stories to ObjectIds", converted);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to convert related news ids; related news of old stories may be incomplete", e);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package edu.miu.mongodemo.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * WebSocket Configuration Class
@@ -36,6 +38,12 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker // Enables WebSocket message handling, backed by a message broker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
     /**
      * Configures the message broker
      * 
@@ -99,5 +107,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*") // Allow all origins (configure properly for production)
                 .withSockJS(); // Enable SockJS fallback for browsers that don't support WebSocket
     }
-}
 
+    /**
+     * Bounds what the server buffers for each STOMP session
+     *
+     * Messages to a client that reads slowly queue up in its session; once they
+     * exceed sendBufferSizeLimit bytes, or one send takes longer than
+     * sendTimeLimit, the session is closed instead of buffering without limit.
+     * Matters for broadcast topics such as /topic/news/breaking.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMs);
+    }
+}
@@ -1,16 +1,24 @@
 package edu.miu.mongodemo.controller;
 
 import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.ArticlePatch;
+import edu.miu.mongodemo.model.ArticleSummary;
+import edu.miu.mongodemo.model.CursorPage;
+import edu.miu.mongodemo.model.DocumentVersion;
 import edu.miu.mongodemo.service.ArticleService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -19,40 +27,63 @@ public class ArticleController {
     
     private static final Logger logger = LoggerFactory.getLogger(ArticleController.class);
     
+    /**
+     * Response header carrying the cursor of the next page on list endpoints
+     *
+     * List endpoints keep returning a plain JSON array; clients pass this value
+     * back as the "cursor" query parameter to fetch the following page. The
+     * header is absent on the last page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ArticleService articleService;
 
     @GetMapping
-    public ResponseEntity<List<Article>> getAllArticles() {
-        logger.info("Fetching all articles");
+    public ResponseEntity<List<?>> getAllArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "full") String view) {
+        logger.info("Fetching articles page (cursor: {}, size: {})", cursor, size);
         long startTime = System.currentTimeMillis();
         try {
-            List<Article> articles = articleService.getAllArticles();
+            CursorPage<?> page = articleService.getArticlePage(cursor, size, viewType(view));
+            List<?> articles = page.getItems();
             long duration = System.currentTimeMillis() - startTime;
             logger.info("Successfully retrieved {} articles in {}ms", articles.size(), duration);
             MDC.put("article_count", String.valueOf(articles.size()));
             MDC.put("response_time_ms", String.valueOf(duration));
-            return ResponseEntity.ok(articles);
+            return withNextCursor(page);
         } catch (Exception e) {
-            logger.error("Error fetching all articles", e);
+            logger.error("Error fetching articles page (cursor: {})", cursor, e);
             throw e;
         } finally {
             MDC.clear();
         }
     }
 
+    /**
+     * Single article with a strong ETag (its version) and Last-Modified
+     *
+     * Revalidations (If-None-Match / If-Modified-Since) of an unchanged article
+     * get a 304 after reading only its version fields.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Article> getArticleById(@PathVariable String id) {
+    public ResponseEntity<Article> getArticleById(@PathVariable String id, WebRequest request) {
         logger.info("Fetching article with id: {}", id);
         MDC.put("article_id", id);
         long startTime = System.currentTimeMillis();
         try {
+            if (ConditionalGet.notModified(request, () -> articleService.getArticleVersion(id))) {
+                logger.info("Article not modified: {}", id);
+                return null;
+            }
             Optional<Article> article = articleService.getArticleById(id);
             long duration = System.currentTimeMillis() - startTime;
             if (article.isPresent()) {
                 logger.info("Article found: {} in {}ms", id, duration);
                 MDC.put("response_time_ms", String.valueOf(duration));
-                return ResponseEntity.ok(article.get());
+                return ConditionalGet.ok(article.get(), DocumentVersion.of(article.get()));
             } else {
                 logger.warn("Article not found with id: {}", id);
                 return ResponseEntity.notFound().build();
@@ -105,6 +136,50 @@ public class ArticleController {
         }
     }
 
+    /**
+     * Partial update: only the fields present in the body are $set
+     * 
+     * Send "Prefer: return=minimal" to skip reading the article back (204 No Content).
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Article> patchArticle(
+            @PathVariable String id,
+            @RequestBody ArticlePatch patch,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        logger.info("Patching article with id: {} (fields: {})", id, patch.toFieldMap().keySet());
+        MDC.put("article_id", id);
+        long startTime = System.currentTimeMillis();
+        try {
+            if ("return=minimal".equalsIgnoreCase(prefer)) {
+                boolean found = articleService.applyPatch(id, patch);
+                long duration = System.currentTimeMillis() - startTime;
+                MDC.put("response_time_ms", String.valueOf(duration));
+                if (!found) {
+                    logger.warn("Article not found with id: {}", id);
+                    return ResponseEntity.notFound().build();
+                }
+                logger.info("Article patched successfully: {} in {}ms", id, duration);
+                return ResponseEntity.noContent().build();
+            }
+
+            Optional<Article> patchedArticle = articleService.patchArticle(id, patch);
+            long duration = System.currentTimeMillis() - startTime;
+            MDC.put("response_time_ms", String.valueOf(duration));
+            if (patchedArticle.isPresent()) {
+                logger.info("Article patched successfully: {} in {}ms", id, duration);
+                return ResponseEntity.ok(patchedArticle.get());
+            } else {
+                logger.warn("Article not found with id: {}", id);
+                return ResponseEntity.notFound().build();
+            }
+        } catch (Exception e) {
+            logger.error("Error patching article with id: {}", id, e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteArticle(@PathVariable String id) {
         logger.info("Deleting article with id: {}", id);
@@ -124,18 +199,50 @@ public class ArticleController {
         }
     }
 
+    @PostMapping("/{id}/views")
+    public ResponseEntity<Map<String, Object>> incrementViewCount(@PathVariable String id) {
+        logger.info("Incrementing view count for article: {}", id);
+        MDC.put("article_id", id);
+        long startTime = System.currentTimeMillis();
+        try {
+            Optional<Integer> viewCount = articleService.incrementViewCountOnly(id);
+            long duration = System.currentTimeMillis() - startTime;
+            if (viewCount.isPresent()) {
+                logger.info("View count for article {} is now {} ({}ms)", id, viewCount.get(), duration);
+                MDC.put("response_time_ms", String.valueOf(duration));
+                Map<String, Object> body = new HashMap<>();
+                body.put("articleId", id);
+                body.put("viewCount", viewCount.get());
+                return ResponseEntity.ok(body);
+            } else {
+                logger.warn("Article not found with id: {}", id);
+                return ResponseEntity.notFound().build();
+            }
+        } catch (Exception e) {
+            logger.error("Error incrementing view count for article: {}", id, e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
     @GetMapping("/author/{author}")
-    public ResponseEntity<List<Article>> getArticlesByAuthor(@PathVariable String author) {
+    public ResponseEntity<List<?>> getArticlesByAuthor(
+            @PathVariable String author,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "full") String view) {
         logger.info("Fetching articles by author: {}", author);
         MDC.put("author", author);
         long startTime = System.currentTimeMillis();
         try {
-            List<Article> articles = articleService.getArticlesByAuthor(author);
+            CursorPage<?> page = articleService.getArticlesByAuthor(author, cursor, size, viewType(view));
+            List<?> articles = page.getItems();
             long duration = System.currentTimeMillis() - startTime;
             logger.info("Found {} articles by author: {} in {}ms", articles.size(), author, duration);
             MDC.put("article_count", String.valueOf(articles.size()));
             MDC.put("response_time_ms", String.valueOf(duration));
-            return ResponseEntity.ok(articles);
+            return withNextCursor(page);
         } catch (Exception e) {
             logger.error("Error fetching articles by author: {}", author, e);
             throw e;
@@ -145,17 +252,22 @@ public class ArticleController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Article>> getArticlesByStatus(@PathVariable String status) {
+    public ResponseEntity<List<?>> getArticlesByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "full") String view) {
         logger.info("Fetching articles with status: {}", status);
         MDC.put("status", status);
         long startTime = System.currentTimeMillis();
         try {
-            List<Article> articles = articleService.getArticlesByStatus(status);
+            CursorPage<?> page = articleService.getArticlesByStatus(status, cursor, size, viewType(view));
+            List<?> articles = page.getItems();
             long duration = System.currentTimeMillis() - startTime;
             logger.info("Found {} articles with status: {} in {}ms", articles.size(), status, duration);
             MDC.put("article_count", String.valueOf(articles.size()));
             MDC.put("response_time_ms", String.valueOf(duration));
-            return ResponseEntity.ok(articles);
+            return withNextCursor(page);
         } catch (Exception e) {
             logger.error("Error fetching articles with status: {}", status, e);
             throw e;
@@ -164,20 +276,39 @@ public class ArticleController {
         }
     }
 
+    /**
+     * Article search
+     * 
+     * ?q=...     relevance-ranked full-text search over title, content and tags (text index)
+     * ?title=... case-insensitive substring match on the title
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<Article>> searchArticlesByTitle(@RequestParam String title) {
-        logger.info("Searching articles by title: {}", title);
-        MDC.put("search_term", title);
+    public ResponseEntity<List<?>> searchArticles(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "full") String view) {
+        boolean textSearch = q != null && !q.isBlank();
+        if (!textSearch && title == null) {
+            throw new IllegalArgumentException("Either q or title is required");
+        }
+        String searchTerm = textSearch ? q : title;
+        logger.info("Searching articles by {}: {}", textSearch ? "text" : "title", searchTerm);
+        MDC.put("search_term", searchTerm);
         long startTime = System.currentTimeMillis();
         try {
-            List<Article> articles = articleService.searchArticlesByTitle(title);
+            CursorPage<?> page = textSearch
+                    ? articleService.searchArticles(q, cursor, size, viewType(view))
+                    : articleService.searchArticlesByTitle(title, cursor, size, viewType(view));
+            List<?> articles = page.getItems();
             long duration = System.currentTimeMillis() - startTime;
-            logger.info("Search completed: found {} articles matching '{}' in {}ms", articles.size(), title, duration);
+            logger.info("Search completed: found {} articles matching '{}' in {}ms", articles.size(), searchTerm, duration);
             MDC.put("article_count", String.valueOf(articles.size()));
             MDC.put("response_time_ms", String.valueOf(duration));
-            return ResponseEntity.ok(articles);
+            return withNextCursor(page);
         } catch (Exception e) {
-            logger.error("Error searching articles by title: {}", title, e);
+            logger.error("Error searching articles: {}", searchTerm, e);
             throw e;
         } finally {
             MDC.clear();
@@ -185,17 +316,22 @@ public class ArticleController {
     }
 
     @GetMapping("/tag/{tag}")
-    public ResponseEntity<List<Article>> getArticlesByTag(@PathVariable String tag) {
+    public ResponseEntity<List<?>> getArticlesByTag(
+            @PathVariable String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "full") String view) {
         logger.info("Fetching articles with tag: {}", tag);
         MDC.put("tag", tag);
         long startTime = System.currentTimeMillis();
         try {
-            List<Article> articles = articleService.getArticlesByTag(tag);
+            CursorPage<?> page = articleService.getArticlesByTag(tag, cursor, size, viewType(view));
+            List<?> articles = page.getItems();
             long duration = System.currentTimeMillis() - startTime;
             logger.info("Found {} articles with tag: {} in {}ms", articles.size(), tag, duration);
             MDC.put("article_count", String.valueOf(articles.size()));
             MDC.put("response_time_ms", String.valueOf(duration));
-            return ResponseEntity.ok(articles);
+            return withNextCursor(page);
         } catch (Exception e) {
             logger.error("Error fetching articles with tag: {}", tag, e);
             throw e;
@@ -203,5 +339,43 @@ public class ArticleController {
             MDC.clear();
         }
     }
-}
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        logger.warn("Rejected article request: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * A PUT whose body carries a version that is no longer the current one
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException e) {
+        logger.warn("Rejected stale article update: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Article was modified by another request");
+    }
+
+    /**
+     * Maps the "view" query parameter of list endpoints to the type read from MongoDB
+     * 
+     * full (default): whole Article documents
+     * summary: ArticleSummary, without content and person
+     */
+    private static Class<?> viewType(String view) {
+        if ("summary".equalsIgnoreCase(view)) {
+            return ArticleSummary.class;
+        }
+        if ("full".equalsIgnoreCase(view)) {
+            return Article.class;
+        }
+        throw new IllegalArgumentException("Unknown view: " + view + " (expected full or summary)");
+    }
+
+    private ResponseEntity<List<?>> withNextCursor(CursorPage<?> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
@@ -1,27 +1,74 @@
 package edu.miu.mongodemo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.CommentCatchUp;
+import edu.miu.mongodemo.model.CommentStats;
+import edu.miu.mongodemo.model.ContentType;
+import edu.miu.mongodemo.model.CursorPage;
+import edu.miu.mongodemo.repository.CommentSort;
 import edu.miu.mongodemo.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/comments")
 public class CommentController {
+
+    /**
+     * Response header carrying the cursor of the next page of a comment thread
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String MORE_COMMENTS_HEADER = "X-More-Comments";
+    public static final String COMMENTS_RESET_HEADER = "X-Comments-Reset";
     
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public ResponseEntity<List<Comment>> getAllComments() {
         return ResponseEntity.ok(commentService.getAllComments());
     }
 
+    /**
+     * Comment counts (total, approved, likes) of many content items in one query
+     *
+     * e.g. GET /api/comments/stats?contentIds=a,b,c&contentType=ARTICLE
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CommentStats>> getCommentStats(
+            @RequestParam List<String> contentIds,
+            @RequestParam(required = false) ContentType contentType) {
+        return ResponseEntity.ok(commentService.getCommentStats(contentIds, contentType));
+    }
+
+    /**
+     * Recomputes all comment stats from the comments collection
+     */
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Void> rebuildCommentStats() {
+        commentService.rebuildCommentStats();
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Comment> getCommentById(@PathVariable String id) {
         Optional<Comment> comment = commentService.getCommentById(id);
@@ -35,6 +82,42 @@ public class CommentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdComment);
     }
 
+    /**
+     * Bulk import of comments
+     *
+     * Accepts a JSON array (application/json) or one comment per line
+     * (application/x-ndjson) and streams back one NDJSON result line per
+     * comment as the chunks are written:
+     * {"index":0,"id":"...","status":"CREATED"} or {"index":1,"status":"FAILED","error":"..."}
+     */
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createComments(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        boolean ndjson = !MediaType.APPLICATION_JSON.isCompatibleWith(contentType);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        boolean[] written = {false};
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            commentService.importComments(request.getInputStream(), ndjson, result -> {
+                try {
+                    writer.write(result);
+                    written[0] = true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            // The separator only goes between results; terminate the last line, if any
+            if (written[0]) {
+                out.write('\n');
+            }
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Comment> updateComment(@PathVariable String id, @RequestBody Comment comment) {
         Comment updatedComment = commentService.updateComment(id, comment);
@@ -47,13 +130,63 @@ public class CommentController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * One page of a content item's comment thread
+     *
+     * ?sort=createdAt (default, newest first) or ?sort=likes (most liked first).
+     * The cursor of the next page is returned in the X-Next-Cursor header.
+     */
     @GetMapping("/content/{contentId}")
-    public ResponseEntity<List<Comment>> getCommentsByContentId(@PathVariable String contentId) {
-        return ResponseEntity.ok(commentService.getCommentsByContentId(contentId));
+    public ResponseEntity<List<Comment>> getCommentsByContentId(
+            @PathVariable String contentId,
+            @RequestParam(required = false) ContentType contentType,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Comment> page = commentService.getCommentThread(
+                contentId, contentType, CommentSort.fromParam(sort), cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Comments created after the last one the client has seen, oldest first
+     *
+     * For clients of /topic/content/{contentId}/comments that reconnect and
+     * need to catch up without reloading the thread. X-More-Comments: true
+     * means the reply was capped at the page size; X-Comments-Reset: true means
+     * the last seen comment is gone and the body is the newest page instead
+     * (see CommentCatchUp).
+     */
+    @GetMapping("/content/{contentId}/since/{lastSeenId}")
+    public ResponseEntity<List<Comment>> getCommentsSince(
+            @PathVariable String contentId,
+            @PathVariable String lastSeenId,
+            @RequestParam(required = false) Integer size) {
+        CommentCatchUp catchUp = commentService.getCommentsSince(contentId, lastSeenId, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (catchUp.hasMore()) {
+            response.header(MORE_COMMENTS_HEADER, "true");
+        }
+        if (catchUp.reset()) {
+            response.header(COMMENTS_RESET_HEADER, "true");
+        }
+        return response.body(catchUp.items());
+    }
+
+    @GetMapping("/content/{contentId}/top")
+    public ResponseEntity<List<Comment>> getTopComments(
+            @PathVariable String contentId,
+            @RequestParam(required = false) ContentType contentType,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        return ResponseEntity.ok(commentService.getTopComments(contentId, contentType, limit));
     }
 
     @GetMapping("/type/{contentType}")
-    public ResponseEntity<List<Comment>> getCommentsByContentType(@PathVariable String contentType) {
+    public ResponseEntity<List<Comment>> getCommentsByContentType(@PathVariable ContentType contentType) {
         return ResponseEntity.ok(commentService.getCommentsByContentType(contentType));
     }
 
@@ -70,17 +203,31 @@ public class CommentController {
     @GetMapping("/content/{contentId}/type/{contentType}")
     public ResponseEntity<List<Comment>> getCommentsByContent(
             @PathVariable String contentId, 
-            @PathVariable String contentType) {
+            @PathVariable ContentType contentType) {
         return ResponseEntity.ok(commentService.getCommentsByContent(contentId, contentType));
     }
 
+    @PostMapping("/{id}/approve")
+    public ResponseEntity<Comment> approveComment(@PathVariable String id) {
+        return commentService.approveComment(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/{id}/like")
-    public ResponseEntity<Comment> likeComment(@PathVariable String id) {
-        Comment comment = commentService.likeComment(id);
-        if (comment != null) {
-            return ResponseEntity.ok(comment);
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<Map<String, Object>> likeComment(@PathVariable String id) {
+        return commentService.likeCommentOnly(id)
+                .map(likes -> {
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("commentId", id);
+                    body.put("likes", likes);
+                    return ResponseEntity.ok(body);
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
-}
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
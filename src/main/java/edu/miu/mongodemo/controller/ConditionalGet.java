@@ -0,0 +1,50 @@
+package edu.miu.mongodemo.controller;
+
+import edu.miu.mongodemo.model.DocumentVersion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET support for single-document reads
+ *
+ * When a request carries If-None-Match or If-Modified-Since, only the
+ * document's version fields are looked up, and if they still match a 304 is
+ * written without loading or sending the document. Plain requests skip the
+ * lookup and get the ETag and Last-Modified with the document.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * @return true if a 304 Not Modified has been written; the handler must then return null
+     */
+    static boolean notModified(WebRequest request, Supplier<Optional<DocumentVersion>> versionLookup) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+                && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null) {
+            return false;
+        }
+        return versionLookup.get()
+                .map(version -> request.checkNotModified(version.eTag(), version.lastModifiedMillis()))
+                .orElse(false);
+    }
+
+    /**
+     * 200 OK with the document's ETag and Last-Modified, when it has them
+     */
+    static <T> ResponseEntity<T> ok(T body, DocumentVersion version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version.eTag() != null) {
+            response.eTag(version.eTag());
+        }
+        if (version.lastModifiedMillis() >= 0) {
+            response.lastModified(version.lastModifiedMillis());
+        }
+        return response.body(body);
+    }
+}
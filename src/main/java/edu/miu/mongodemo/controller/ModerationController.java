@@ -0,0 +1,52 @@
+package edu.miu.mongodemo.controller;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ModerationDecision;
+import edu.miu.mongodemo.service.ModerationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comment moderation queue
+ *
+ * Worker loop:
+ * 1. POST /api/comments/moderation/claim?worker=w1&size=50 leases a batch
+ * 2. POST /api/comments/moderation/decisions {"worker":"w1","approve":[...],"reject":[...]}
+ * 3. repeat until claim returns an empty list
+ */
+@RestController
+@RequestMapping("/api/comments/moderation")
+public class ModerationController {
+
+    @Autowired
+    private ModerationService moderationService;
+
+    @PostMapping("/claim")
+    public ResponseEntity<List<Comment>> claim(
+            @RequestParam String worker,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long leaseSeconds) {
+        Duration lease = leaseSeconds != null ? Duration.ofSeconds(leaseSeconds) : null;
+        return ResponseEntity.ok(moderationService.claim(worker, size, lease));
+    }
+
+    @PostMapping("/decisions")
+    public ResponseEntity<Map<String, Long>> decide(@RequestBody ModerationDecision decision) {
+        return ResponseEntity.ok(moderationService.decide(decision));
+    }
+
+    @GetMapping("/queue")
+    public ResponseEntity<Map<String, Long>> queueStatus() {
+        return ResponseEntity.ok(moderationService.queueStatus());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
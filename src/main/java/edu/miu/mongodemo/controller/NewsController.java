@@ -1,36 +1,147 @@
 package edu.miu.mongodemo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import edu.miu.mongodemo.model.CursorPage;
+import edu.miu.mongodemo.model.DocumentVersion;
 import edu.miu.mongodemo.model.News;
+import edu.miu.mongodemo.model.NewsFacets;
+import edu.miu.mongodemo.model.NewsHistogramBucket;
+import edu.miu.mongodemo.model.NewsSummary;
+import edu.miu.mongodemo.repository.HistogramInterval;
+import edu.miu.mongodemo.service.BreakingNewsWatcher;
+import edu.miu.mongodemo.service.FrontPageFeed;
 import edu.miu.mongodemo.service.NewsService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/news")
 public class NewsController {
     
+    /**
+     * Response header carrying the cursor of the next page on paged endpoints
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private NewsService newsService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BreakingNewsWatcher breakingNewsWatcher;
+
+    @Value("${news.breaking.sse.heartbeat:PT30S}")
+    private Duration breakingNewsHeartbeat;
+
     @GetMapping
     public ResponseEntity<List<News>> getAllNews() {
         return ResponseEntity.ok(newsService.getAllNews());
     }
 
+    /**
+     * Front-page feed: recent stories ranked by priority and recency, with at
+     * most news.feed.category-quota stories per category
+     *
+     * Served from an in-memory snapshot that is already serialized to JSON.
+     */
+    @GetMapping(value = "/front-page", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getFrontPage() {
+        return ResponseEntity.ok(newsService.getFrontPage().json());
+    }
+
+    /**
+     * Breaking news as Server-Sent Events, pushed as soon as a story with
+     * priority >= news.breaking.priority-threshold is inserted
+     *
+     *   curl -N localhost:8080/api/news/breaking
+     *
+     * Each event is a "breaking" NewsSummary with the story id as event id. A
+     * comment line is sent every news.breaking.sse.heartbeat so proxies keep
+     * the idle connection open. STOMP clients can subscribe to
+     * /topic/news/breaking instead.
+     */
+    @GetMapping(value = "/breaking", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<NewsSummary>> streamBreakingNews() {
+        Flux<ServerSentEvent<NewsSummary>> stories = breakingNewsWatcher.subscribe()
+                .map(story -> ServerSentEvent.builder(story).id(story.getId()).event("breaking").build());
+        Flux<ServerSentEvent<NewsSummary>> heartbeats = Flux.interval(breakingNewsHeartbeat)
+                .map(tick -> ServerSentEvent.<NewsSummary>builder().comment("heartbeat").build());
+        return Flux.merge(stories, heartbeats);
+    }
+
+    /**
+     * Live story counts per category, reporter and priority band, for tabs and filters
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<NewsFacets> getNewsFacets() {
+        return ResponseEntity.ok(newsService.getNewsFacets());
+    }
+
+    /**
+     * Related stories of several stories in one call, keyed by story id
+     *
+     * e.g. GET /api/news/related?ids=a,b,c&depth=2
+     * Related stories are summaries (no fullText), nearest first, then newest first.
+     */
+    @GetMapping("/related")
+    public ResponseEntity<Map<String, List<NewsSummary>>> getRelatedNews(
+            @RequestParam List<String> ids,
+            @RequestParam(required = false) Integer depth) {
+        return ResponseEntity.ok(newsService.getRelatedNews(ids, depth));
+    }
+
+    /**
+     * Single story with a strong ETag (its version) and Last-Modified; revalidations
+     * of an unchanged story get a 304 without fullText being read
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<News> getNewsById(@PathVariable String id) {
+    public ResponseEntity<News> getNewsById(@PathVariable String id, WebRequest request) {
+        if (ConditionalGet.notModified(request, () -> newsService.getNewsVersion(id))) {
+            return null;
+        }
         Optional<News> news = newsService.getNewsById(id);
-        return news.map(ResponseEntity::ok)
+        return news.map(story -> ConditionalGet.ok(story, DocumentVersion.of(story)))
                   .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Related stories of one story, following relatedNewsIds up to ?depth= levels (default 1)
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<NewsSummary>> getRelatedNewsOf(
+            @PathVariable String id,
+            @RequestParam(required = false) Integer depth) {
+        return newsService.getRelatedNews(id, depth)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<News> createNews(@RequestBody News news) {
         News createdNews = newsService.createNews(news);
@@ -59,11 +170,55 @@ public class NewsController {
         return ResponseEntity.ok(newsService.getNewsByReporter(reporter));
     }
 
-    @GetMapping("/date-range")
-    public ResponseEntity<List<News>> getNewsByDateRange(
+    /**
+     * Live news published in [start, end), oldest first
+     *
+     * Streamed from the MongoDB cursor as it is read: a JSON array by default,
+     * or one story per line with Accept: application/x-ndjson.
+     * ?view=summary leaves out fullText.
+     */
+    @GetMapping(value = "/date-range", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void getNewsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) throws IOException {
+        boolean ndjson = acceptsNdjson(accept);
+        try (Stream<?> news = newsService.streamNewsByDateRange(start, end, viewType(view))) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+            OutputStream out = new BufferedOutputStream(response.getOutputStream());
+            ObjectWriter writer = objectMapper.writer();
+            try (SequenceWriter sequence = ndjson
+                    ? writer.withRootValueSeparator("\n").writeValues(out)
+                    : writer.writeValuesAsArray(out)) {
+                Iterator<?> iterator = news.iterator();
+                boolean written = false;
+                while (iterator.hasNext()) {
+                    sequence.write(iterator.next());
+                    written = true;
+                }
+                sequence.flush();
+                // Terminates the last record; an empty result stays an empty body, not one blank line
+                if (ndjson && written) {
+                    out.write('\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Publication histogram: number of live news per hour or day in [start, end)
+     *
+     * e.g. GET /api/news/date-range/histogram?start=...&end=...&interval=hour
+     */
+    @GetMapping("/date-range/histogram")
+    public ResponseEntity<List<NewsHistogramBucket>> getNewsHistogram(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        return ResponseEntity.ok(newsService.getNewsByDateRange(start, end));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String interval) {
+        return ResponseEntity.ok(newsService.getNewsHistogram(start, end, HistogramInterval.fromParam(interval)));
     }
 
     @GetMapping("/priority/{priority}")
@@ -71,9 +226,73 @@ public class NewsController {
         return ResponseEntity.ok(newsService.getHighPriorityNews(priority));
     }
 
+    /**
+     * News search
+     * 
+     * ?q=...        relevance-ranked full-text search over headline, summary and fullText;
+     *               paged with ?cursor= and ?size=, next page cursor in the X-Next-Cursor header
+     * ?headline=... case-insensitive substring match on the headline
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<News>> searchNewsByHeadline(@RequestParam String headline) {
+    public ResponseEntity<List<News>> searchNews(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String headline,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        if (q != null && !q.isBlank()) {
+            CursorPage<News> page = newsService.searchNews(q, cursor, size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasNext()) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        }
+        if (headline == null) {
+            throw new IllegalArgumentException("Either q or headline is required");
+        }
         return ResponseEntity.ok(newsService.searchNewsByHeadline(headline));
     }
+
+    private static boolean acceptsNdjson(String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    /**
+     * Maps the "view" query parameter to the type read from MongoDB
+     *
+     * full (default): whole News documents
+     * summary: NewsSummary, without fullText and relatedNewsIds
+     */
+    private static Class<?> viewType(String view) {
+        if ("summary".equalsIgnoreCase(view)) {
+            return NewsSummary.class;
+        }
+        if ("full".equalsIgnoreCase(view)) {
+            return News.class;
+        }
+        throw new IllegalArgumentException("Unknown view: " + view + " (expected full or summary)");
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * A PUT whose body carries a version that is no longer the current one
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Story was modified by another request");
+    }
+
+    /**
+     * The front-page feed could not be loaded yet (e.g. MongoDB is unreachable)
+     */
+    @ExceptionHandler(FrontPageFeed.FeedUnavailableException.class)
+    public ResponseEntity<String> handleFeedUnavailable(FrontPageFeed.FeedUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
 }
 
@@ -0,0 +1,82 @@
+package edu.miu.mongodemo.controller;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.CommentStats;
+import edu.miu.mongodemo.model.ContentType;
+import edu.miu.mongodemo.repository.CommentSort;
+import edu.miu.mongodemo.service.ReactiveCommentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking comment endpoints
+ *
+ * Same data as /api/comments, but every handler returns a Mono or Flux, so the
+ * servlet thread is released while MongoDB is working (Spring MVC completes the
+ * response asynchronously). Threads are streamed as NDJSON or Server-Sent
+ * Events depending on the Accept header:
+ *
+ *   curl -H 'Accept: application/x-ndjson' localhost:8080/api/reactive/comments/content/123
+ *   curl -H 'Accept: text/event-stream' localhost:8080/api/reactive/comments/content/123?sort=likes
+ */
+@RestController
+@RequestMapping("/api/reactive/comments")
+public class ReactiveCommentController {
+
+    @Autowired
+    private ReactiveCommentService reactiveCommentService;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Comment>> getCommentById(@PathVariable String id) {
+        return reactiveCommentService.getCommentById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/content/{contentId}",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Comment> streamThread(
+            @PathVariable String contentId,
+            @RequestParam(required = false) ContentType contentType,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit) {
+        return reactiveCommentService.streamThread(contentId, contentType, CommentSort.fromParam(sort), limit);
+    }
+
+    @GetMapping(value = "/stats", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<CommentStats> getCommentStats(@RequestParam List<String> contentIds) {
+        return reactiveCommentService.getCommentStats(contentIds);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Comment>> createComment(@RequestBody Comment comment) {
+        return reactiveCommentService.createComment(comment)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteComment(@PathVariable String id) {
+        return reactiveCommentService.deleteComment(id)
+                .map(deleted -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/{id}/like")
+    public Mono<ResponseEntity<Map<String, Object>>> likeComment(@PathVariable String id) {
+        return reactiveCommentService.likeComment(id)
+                .map(likes -> ResponseEntity.ok(Map.<String, Object>of("commentId", id, "likes", likes)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -1,6 +1,7 @@
 package edu.miu.mongodemo.controller;
 
 import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.ArticlePatch;
 import edu.miu.mongodemo.service.ArticleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -10,6 +11,7 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * WebSocket Controller for Real-Time Article Updates
@@ -47,21 +49,20 @@ public class WebSocketArticleController {
      * 
      * Message Flow:
      * 1. Admin changes article status via WebSocket
-     * 2. Server updates database
+     * 2. Server updates the status field in the database
      * 3. Server broadcasts to:
      *    - /topic/articles/all: All subscribers (for article list updates)
      *    - /topic/article/{id}: Specific article subscribers (for detail page updates)
      */
     @MessageMapping("/article/status")
     public void updateArticleStatus(@Payload ArticleStatusDTO statusDTO) {
-        // Get article from database
-        Article article = articleService.getArticleById(statusDTO.getArticleId())
+        // Update status with a single $set, reading back only what the response needs
+        ArticlePatch patch = new ArticlePatch();
+        patch.setStatus(statusDTO.getStatus());
+        Article updatedArticle = articleService
+                .patchArticle(statusDTO.getArticleId(), patch, List.of("title", "status"))
                 .orElseThrow(() -> new RuntimeException("Article not found"));
         
-        // Update status
-        article.setStatus(statusDTO.getStatus());
-        Article updatedArticle = articleService.updateArticle(article.getId(), article);
-        
         // Create response DTO
         ArticleStatusResponseDTO response = new ArticleStatusResponseDTO();
         response.setArticleId(updatedArticle.getId());
@@ -148,24 +149,15 @@ public class WebSocketArticleController {
     @MessageMapping("/article/update")
     @SendTo("/topic/article/{articleId}/updates")
     public ArticleUpdateDTO updateArticleContent(@Payload ArticleUpdateDTO updateDTO) {
-        // Get existing article
-        Article article = articleService.getArticleById(updateDTO.getArticleId())
+        // Only the fields sent by the client are $set; the article isn't read first
+        ArticlePatch patch = new ArticlePatch();
+        patch.setTitle(updateDTO.getTitle());
+        patch.setContent(updateDTO.getContent());
+        patch.setTags(updateDTO.getTags());
+        Article updatedArticle = articleService
+                .patchArticle(updateDTO.getArticleId(), patch, List.of("title", "content", "tags"))
                 .orElseThrow(() -> new RuntimeException("Article not found"));
         
-        // Update fields
-        if (updateDTO.getTitle() != null) {
-            article.setTitle(updateDTO.getTitle());
-        }
-        if (updateDTO.getContent() != null) {
-            article.setContent(updateDTO.getContent());
-        }
-        if (updateDTO.getTags() != null) {
-            article.setTags(updateDTO.getTags());
-        }
-        
-        // Save to database
-        Article updatedArticle = articleService.updateArticle(article.getId(), article);
-        
         // Create response
         ArticleUpdateDTO response = new ArticleUpdateDTO();
         response.setArticleId(updatedArticle.getId());
@@ -0,0 +1,89 @@
+package edu.miu.mongodemo.controller;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.CommentCatchUp;
+import edu.miu.mongodemo.service.CommentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebSocket Controller for Real-Time Comment Updates
+ *
+ * Live updates:
+ *   SUBSCRIBE /topic/content/{contentId}/comments
+ *   Receives one CommentUpdateDTO per push interval with the comments created,
+ *   the new like counts and the ids deleted since the previous frame
+ *   (see CommentUpdateBuffer).
+ *
+ * Resume after a reconnect:
+ *   SUBSCRIBE /app/content/{contentId}/comments/since/{lastSeenId}
+ *   Replies once, straight to the subscriber, with a CommentCatchUp holding the
+ *   comments created after the last one the client has seen (oldest first), so
+ *   the client doesn't reload the whole thread. Subscribe to the topic first and
+ *   de-duplicate by id, so nothing created in between is missed. If hasMore is
+ *   set the reply was capped at the page size; resume again from its last item.
+ *   If reset is set the last seen comment is gone and the reply holds the
+ *   newest page of the thread instead.
+ */
+@Controller
+public class WebSocketCommentController {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @SubscribeMapping("/content/{contentId}/comments/since/{lastSeenId}")
+    public CommentCatchUp resume(@DestinationVariable String contentId, @DestinationVariable String lastSeenId) {
+        return commentService.getCommentsSince(contentId, lastSeenId, null);
+    }
+
+    /**
+     * Sends one batched update to the subscribers of a content item's comments
+     */
+    public void broadcastCommentUpdate(CommentUpdateDTO update) {
+        messagingTemplate.convertAndSend("/topic/content/" + update.getContentId() + "/comments", update);
+    }
+
+    // ============================================================================
+    // DTOs (Data Transfer Objects)
+    // ============================================================================
+
+    /**
+     * Comment changes of one content item collected during one push interval
+     */
+    public static class CommentUpdateDTO {
+        private String contentId;
+        private List<Comment> created;   // oldest first
+        private Map<String, Integer> likes; // comment id -> current like count
+        private List<String> deleted;
+        private String lastCommentId;    // id of the newest comment in created, for resuming
+        private LocalDateTime timestamp;
+
+        public String getContentId() { return contentId; }
+        public void setContentId(String contentId) { this.contentId = contentId; }
+
+        public List<Comment> getCreated() { return created; }
+        public void setCreated(List<Comment> created) { this.created = created; }
+
+        public Map<String, Integer> getLikes() { return likes; }
+        public void setLikes(Map<String, Integer> likes) { this.likes = likes; }
+
+        public List<String> getDeleted() { return deleted; }
+        public void setDeleted(List<String> deleted) { this.deleted = deleted; }
+
+        public String getLastCommentId() { return lastCommentId; }
+        public void setLastCommentId(String lastCommentId) { this.lastCommentId = lastCommentId; }
+
+        public LocalDateTime getTimestamp() { return timestamp; }
+        public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+    }
+}
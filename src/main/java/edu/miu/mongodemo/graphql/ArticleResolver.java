@@ -1,6 +1,7 @@
 package edu.miu.mongodemo.graphql;
 
 import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.ArticlePatch;
 import edu.miu.mongodemo.model.Person;
 import edu.miu.mongodemo.repository.PersonRepository;
 import edu.miu.mongodemo.service.ArticleService;
@@ -194,32 +195,22 @@ public class ArticleResolver {
      */
     @MutationMapping
     public Article updateArticle(@Argument String id, @Argument("article") ArticleUpdateInput input) {
-        Article existingArticle = articleService.getArticleById(id)
-                .orElseThrow(() -> new RuntimeException("Article not found with id: " + id));
-        
-        if (input.title() != null) {
-            existingArticle.setTitle(input.title());
-        }
-        if (input.content() != null) {
-            existingArticle.setContent(input.content());
-        }
-        if (input.author() != null) {
-            existingArticle.setAuthor(input.author());
-        }
-        if (input.tags() != null) {
-            existingArticle.setTags(input.tags());
-        }
-        if (input.status() != null) {
-            existingArticle.setStatus(input.status());
-        }
+        // Only the provided fields are $set; the existing article is not loaded first
+        ArticlePatch patch = new ArticlePatch();
+        patch.setTitle(input.title());
+        patch.setContent(input.content());
+        patch.setAuthor(input.author());
+        patch.setTags(input.tags());
+        patch.setStatus(input.status());
         if (input.personId() != null) {
             Person person = personRepository.findById(input.personId()).block();
             if (person != null) {
-                existingArticle.setPerson(person);
+                patch.setPerson(person);
             }
         }
         
-        return articleService.updateArticle(id, existingArticle);
+        return articleService.patchArticle(id, patch)
+                .orElseThrow(() -> new RuntimeException("Article not found with id: " + id));
     }
 
     /**
@@ -1,6 +1,9 @@
 package edu.miu.mongodemo.graphql;
 
 import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
+import edu.miu.mongodemo.model.CursorPage;
+import edu.miu.mongodemo.repository.CommentSort;
 import edu.miu.mongodemo.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
@@ -42,6 +45,9 @@ public class CommentResolver {
 
     /**
      * Query: Get comments by content ID
+     *
+     * Deprecated in the schema: returns only the first (newest) page of the
+     * thread, like GET /api/comments/content/{contentId} without a cursor.
      * GraphQL Query:
      * {
      *   commentsByContent(contentId: "123") {
@@ -54,7 +60,42 @@ public class CommentResolver {
      */
     @QueryMapping
     public List<Comment> commentsByContent(@Argument String contentId) {
-        return commentService.getCommentsByContentId(contentId);
+        return commentService.getCommentThread(contentId, null, CommentSort.CREATED_AT, null, null).getItems();
+    }
+
+    /**
+     * Query: One page of a content item's comment thread
+     * GraphQL Query:
+     * {
+     *   commentThread(contentId: "123", sortBy: LIKES, first: 20) {
+     *     items { id author content likes }
+     *     nextCursor
+     *   }
+     * }
+     */
+    @QueryMapping
+    public CursorPage<Comment> commentThread(@Argument String contentId, @Argument ContentType contentType,
+                                             @Argument CommentSort sortBy, @Argument Integer first,
+                                             @Argument String after) {
+        return commentService.getCommentThread(contentId, contentType,
+                sortBy != null ? sortBy : CommentSort.CREATED_AT, after, first);
+    }
+
+    /**
+     * Query: Most liked comments of a content item
+     * GraphQL Query:
+     * {
+     *   topComments(contentId: "123", first: 5) {
+     *     id
+     *     author
+     *     likes
+     *   }
+     * }
+     */
+    @QueryMapping
+    public List<Comment> topComments(@Argument String contentId, @Argument ContentType contentType,
+                                     @Argument Integer first) {
+        return commentService.getTopComments(contentId, contentType, first);
     }
 
     // ============================================================================
@@ -100,11 +141,9 @@ public class CommentResolver {
      */
     @MutationMapping
     public Comment likeComment(@Argument String id) {
-        Comment comment = commentService.likeComment(id);
-        if (comment == null) {
-            throw new RuntimeException("Comment not found with id: " + id);
-        }
-        return comment;
+        // findAndModify returns the liked comment, so no separate read is needed
+        return commentService.likeComment(id)
+                .orElseThrow(() -> new RuntimeException("Comment not found with id: " + id));
     }
 
     // ============================================================================
@@ -117,7 +156,7 @@ public class CommentResolver {
      */
     public record CommentInput(
             String contentId,
-            String contentType,
+            ContentType contentType,
             String author,
             String content
     ) {}
@@ -0,0 +1,91 @@
+package edu.miu.mongodemo.graphql;
+
+import edu.miu.mongodemo.model.News;
+import edu.miu.mongodemo.model.NewsSummary;
+import edu.miu.mongodemo.service.NewsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GraphQL Resolver for News operations
+ */
+@Controller
+public class NewsResolver {
+
+    @Autowired
+    private NewsService newsService;
+
+    // ============================================================================
+    // QUERIES
+    // ============================================================================
+
+    /**
+     * Query: Get a news story by ID
+     * GraphQL Query:
+     * {
+     *   news(id: "123") {
+     *     headline
+     *     related { id headline }
+     *   }
+     * }
+     */
+    @QueryMapping
+    public News news(@Argument String id) {
+        return newsService.getNewsById(id).orElse(null);
+    }
+
+    /**
+     * Query: Related stories of several stories
+     * GraphQL Query:
+     * {
+     *   relatedNews(ids: ["123", "456"], depth: 2) {
+     *     newsId
+     *     related { id headline }
+     *   }
+     * }
+     */
+    @QueryMapping
+    public List<RelatedNews> relatedNews(@Argument List<String> ids, @Argument Integer depth) {
+        return newsService.getRelatedNews(ids, depth).entrySet().stream()
+                .map(entry -> new RelatedNews(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    // ============================================================================
+    // FIELDS
+    // ============================================================================
+
+    /**
+     * Field: News.related, resolved for all stories of a response with one aggregation
+     * (batch mappings take no arguments, so this is always the directly related stories)
+     */
+    @BatchMapping
+    public Map<News, List<NewsSummary>> related(List<News> stories) {
+        Map<String, List<NewsSummary>> byId = newsService.getRelatedNews(
+                stories.stream().map(News::getId).toList(), 1);
+        Map<News, List<NewsSummary>> related = new LinkedHashMap<>();
+        for (News story : stories) {
+            related.put(story, byId.getOrDefault(story.getId(), List.of()));
+        }
+        return related;
+    }
+
+    // ============================================================================
+    // OUTPUT RECORDS
+    // ============================================================================
+
+    /**
+     * Maps to RelatedNews in GraphQL schema
+     */
+    public record RelatedNews(
+            String newsId,
+            List<NewsSummary> related
+    ) {}
+}
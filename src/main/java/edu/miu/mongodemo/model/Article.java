@@ -1,6 +1,10 @@
 package edu.miu.mongodemo.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -9,18 +13,36 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "articles")
+// Keyset pagination indexes: each listing filter followed by the (publishedDate, _id) sort
+@CompoundIndexes({
+    @CompoundIndex(name = "published_id", def = "{'publishedDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "author_published_id", def = "{'author': 1, 'publishedDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "status_published_id", def = "{'status': 1, 'publishedDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "tags_published_id", def = "{'tags': 1, 'publishedDate': -1, '_id': -1}")
+})
 public class Article {
     @Id
     private String id;
+    // Text index for relevance-ranked search; title matches weigh most
+    @TextIndexed(weight = 3)
     private String title;
+    @TextIndexed
     private String content;
     private String author;
     private LocalDateTime publishedDate;
+    @TextIndexed(weight = 2)
     private List<String> tags;
     private Integer viewCount;
     private String status; // DRAFT, PUBLISHED, ARCHIVED
-    @DBRef
+    // Lazy so loading articles doesn't run one query per referenced person;
+    // ArticleService resolves a whole page of references at once (PersonReferenceLoader)
+    @DBRef(lazy = true)
     private Person person;
+    // Incremented by every save and every MongoTemplate update; the ETag of single-item reads
+    @Version
+    private Long version;
+    // Set by every write; the Last-Modified of single-item reads
+    private LocalDateTime lastModifiedDate;
     public Article() {
         this.tags = new ArrayList<>();
         this.viewCount = 0;
@@ -35,6 +57,24 @@ public class Article {
         this.author = author;
     }
 
+    /**
+     * Shallow copy, used to hand out modified views of cached articles
+     * without mutating the cached instance
+     */
+    public Article(Article other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.content = other.content;
+        this.author = other.author;
+        this.publishedDate = other.publishedDate;
+        this.tags = other.tags;
+        this.viewCount = other.viewCount;
+        this.status = other.status;
+        this.person = other.person;
+        this.version = other.version;
+        this.lastModifiedDate = other.lastModifiedDate;
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -107,5 +147,20 @@ public class Article {
     public void setPerson(Person person) {
         this.person = person;
     }
-}
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(LocalDateTime lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+}
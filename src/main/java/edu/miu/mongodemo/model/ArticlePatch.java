@@ -0,0 +1,103 @@
+package edu.miu.mongodemo.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partial update of an Article
+ *
+ * Only non-null fields are written (as a MongoDB $set); everything else in
+ * the stored document, including a possibly large content body, is left
+ * untouched and never sent over the wire.
+ */
+public class ArticlePatch {
+    private String title;
+    private String content;
+    private String author;
+    private List<String> tags;
+    private String status;
+    private Person person;
+
+    public ArticlePatch() {
+    }
+
+    /**
+     * Fields to $set, keyed by Article property name
+     */
+    public Map<String, Object> toFieldMap() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (title != null) {
+            fields.put("title", title);
+        }
+        if (content != null) {
+            fields.put("content", content);
+        }
+        if (author != null) {
+            fields.put("author", author);
+        }
+        if (tags != null) {
+            fields.put("tags", tags);
+        }
+        if (status != null) {
+            fields.put("status", status);
+        }
+        if (person != null) {
+            fields.put("person", person);
+        }
+        return fields;
+    }
+
+    public boolean isEmpty() {
+        return toFieldMap().isEmpty();
+    }
+
+    // Getters and Setters
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Person getPerson() {
+        return person;
+    }
+
+    public void setPerson(Person person) {
+        this.person = person;
+    }
+}
@@ -0,0 +1,83 @@
+package edu.miu.mongodemo.model;
+
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only projection of an Article for list views
+ *
+ * Leaves out the content body and the person reference. Used as a DTO
+ * projection, so MongoDB only returns these fields and no DBRef lookups happen.
+ */
+public class ArticleSummary {
+    @Id
+    private String id;
+    private String title;
+    private String author;
+    private List<String> tags;
+    private String status;
+    private Integer viewCount;
+    private LocalDateTime publishedDate;
+
+    public ArticleSummary() {
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(Integer viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public LocalDateTime getPublishedDate() {
+        return publishedDate;
+    }
+
+    public void setPublishedDate(LocalDateTime publishedDate) {
+        this.publishedDate = publishedDate;
+    }
+}
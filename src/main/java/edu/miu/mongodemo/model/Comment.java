@@ -1,29 +1,83 @@
 package edu.miu.mongodemo.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.TypeAlias;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Document(collection = "comments")
+@TypeAlias(Comment.TYPE_ALIAS)
+// Compact storage layout: every property is stored under a short alias (see the
+// @Field names below), so each comment carries a few bytes of field names instead
+// of ~90. Queries, sorts and updates built from property names are translated by
+// Spring Data; raw pipelines and index definitions must use the stored names.
+// The type key is the one-letter alias "c" rather than the 31-character class name.
+// Documents written with the old long names are rewritten by CommentStorageMigration.
+//
+// Backing indexes for the CommentRepository finders; findByContentId and
+// findByContentIdAndContentType use the prefix of thread_created.
+// The two thread indexes end in _id so keyset pages of a thread
+// (see CommentRepositoryImpl#findThread) never need an in-memory sort.
+@CompoundIndexes({
+    @CompoundIndex(name = "thread_created", def = "{'cid': 1, 'ct': 1, 'ts': -1, '_id': -1}"),
+    @CompoundIndex(name = "thread_likes", def = "{'cid': 1, 'ct': 1, 'lk': -1, '_id': -1}"),
+    @CompoundIndex(name = "ct_created", def = "{'ct': 1, 'ts': -1}"),
+    @CompoundIndex(name = "au_created", def = "{'au': 1, 'ts': -1}"),
+    @CompoundIndex(name = "ap_created", def = "{'ap': 1, 'ts': 1}"),
+    // Moderation queue: pending comments are isApproved=false with no isRejected
+    @CompoundIndex(name = "moderation", def = "{'ap': 1, 'rj': 1, 'ts': 1}")
+})
 public class Comment {
+
+    /**
+     * Value stored in _class for every comment
+     */
+    public static final String TYPE_ALIAS = "c";
+
+    /**
+     * Every value contentType can take
+     */
+    public static final List<ContentType> CONTENT_TYPES = List.of(ContentType.values());
+
     @Id
     private String id;
+    @Field("cid")
     private String contentId; // ID of Article or News
-    private String contentType; // ARTICLE or NEWS
+    @Field("ct")
+    private ContentType contentType;
+    @Field("au")
     private String author;
+    @Field("tx")
     private String content;
+    @Field("ts")
     private LocalDateTime createdAt;
-    private Integer likes;
-    private Boolean isApproved;
+    @Field("lk")
+    private int likes;
+    // Moderation state and lease are only changed by moderation, never by request bodies
+    @Field("ap")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private boolean isApproved;
+    @Field("rj")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Boolean isRejected; // set by moderation; null while pending
+    @Field("cb")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String claimedBy; // moderator worker holding the lease
+    @Field("cx")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime claimExpiresAt;
 
     public Comment() {
         this.createdAt = LocalDateTime.now();
-        this.likes = 0;
-        this.isApproved = false;
     }
 
-    public Comment(String contentId, String contentType, String author, String content) {
+    public Comment(String contentId, ContentType contentType, String author, String content) {
         this();
         this.contentId = contentId;
         this.contentType = contentType;
@@ -48,11 +102,11 @@ public class Comment {
         this.contentId = contentId;
     }
 
-    public String getContentType() {
+    public ContentType getContentType() {
         return contentType;
     }
 
-    public void setContentType(String contentType) {
+    public void setContentType(ContentType contentType) {
         this.contentType = contentType;
     }
 
@@ -80,20 +134,63 @@ public class Comment {
         this.createdAt = createdAt;
     }
 
-    public Integer getLikes() {
+    public int getLikes() {
         return likes;
     }
 
-    public void setLikes(Integer likes) {
+    public void setLikes(int likes) {
         this.likes = likes;
     }
 
-    public Boolean getIsApproved() {
+    public boolean getIsApproved() {
         return isApproved;
     }
 
-    public void setIsApproved(Boolean isApproved) {
+    public void setIsApproved(boolean isApproved) {
         this.isApproved = isApproved;
     }
-}
 
+    public Boolean getIsRejected() {
+        return isRejected;
+    }
+
+    public void setIsRejected(Boolean isRejected) {
+        this.isRejected = isRejected;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getClaimExpiresAt() {
+        return claimExpiresAt;
+    }
+
+    public void setClaimExpiresAt(LocalDateTime claimExpiresAt) {
+        this.claimExpiresAt = claimExpiresAt;
+    }
+
+    /**
+     * Resets the moderation state and lease, so the comment enters the queue as pending
+     */
+    public void resetModeration() {
+        this.isApproved = false;
+        this.isRejected = null;
+        this.claimedBy = null;
+        this.claimExpiresAt = null;
+    }
+
+    /**
+     * Copies the moderation state and lease of another comment
+     */
+    public void copyModeration(Comment other) {
+        this.isApproved = other.isApproved;
+        this.isRejected = other.isRejected;
+        this.claimedBy = other.claimedBy;
+        this.claimExpiresAt = other.claimExpiresAt;
+    }
+}
@@ -0,0 +1,28 @@
+package edu.miu.mongodemo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a bulk comment import
+ *
+ * Streamed back as one NDJSON line per submitted comment, in submission order.
+ *
+ * @param index zero-based position of the comment in the request body
+ * @param id id of the inserted comment (null if it failed)
+ * @param status CREATED or FAILED
+ * @param error why the comment was not inserted (null if it was)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CommentBatchResult(int index, String id, String status, String error) {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    public static CommentBatchResult created(int index, String id) {
+        return new CommentBatchResult(index, id, CREATED, null);
+    }
+
+    public static CommentBatchResult failed(int index, String error) {
+        return new CommentBatchResult(index, null, FAILED, error);
+    }
+}
@@ -0,0 +1,16 @@
+package edu.miu.mongodemo.model;
+
+import java.util.List;
+
+/**
+ * Comments a reconnecting client missed, oldest first
+ *
+ * @param items the missed comments, at most one page
+ * @param hasMore true if the reply was capped at the page size; ask again
+ *                with the id of the last item to get the rest
+ * @param reset true if the last seen comment no longer exists (e.g. was deleted);
+ *              items are then the newest page of the thread and replace what the
+ *              client has, and hasMore means older comments exist
+ */
+public record CommentCatchUp(List<Comment> items, boolean hasMore, boolean reset) {
+}
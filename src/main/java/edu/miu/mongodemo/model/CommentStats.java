@@ -0,0 +1,102 @@
+package edu.miu.mongodemo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed comment aggregates of one article or news item
+ *
+ * Maintained incrementally by CommentService ($inc on every create, delete,
+ * approve and like), so comment counts can be shown next to content without
+ * reading the comments themselves. The id is "contentType:contentId".
+ */
+@Document(collection = "comment_stats")
+public class CommentStats {
+    @Id
+    private String id;
+    @Indexed(name = "content_id")
+    private String contentId;
+    private ContentType contentType;
+    private long total;
+    private long approved;
+    private long likes;
+    private LocalDateTime updatedAt;
+
+    public CommentStats() {
+    }
+
+    /**
+     * All-zero stats for content that has no comments yet
+     */
+    public static CommentStats empty(String contentId, ContentType contentType) {
+        CommentStats stats = new CommentStats();
+        stats.setId(idOf(contentId, contentType));
+        stats.setContentId(contentId);
+        stats.setContentType(contentType);
+        return stats;
+    }
+
+    public static String idOf(String contentId, ContentType contentType) {
+        return contentType + ":" + contentId;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(String contentId) {
+        this.contentId = contentId;
+    }
+
+    public ContentType getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(ContentType contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getApproved() {
+        return approved;
+    }
+
+    public void setApproved(long approved) {
+        this.approved = approved;
+    }
+
+    public long getLikes() {
+        return likes;
+    }
+
+    public void setLikes(long likes) {
+        this.likes = likes;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
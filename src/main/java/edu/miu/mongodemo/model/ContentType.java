@@ -0,0 +1,12 @@
+package edu.miu.mongodemo.model;
+
+/**
+ * Kind of content a comment belongs to
+ *
+ * Stored by name, so documents keep the "ARTICLE"/"NEWS" values they always had
+ * and the JSON and GraphQL representations are unchanged.
+ */
+public enum ContentType {
+    ARTICLE,
+    NEWS
+}
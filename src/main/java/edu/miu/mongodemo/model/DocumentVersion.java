@@ -0,0 +1,38 @@
+package edu.miu.mongodemo.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Version fields of an Article or News document, read without the document
+ * body to answer conditional GETs
+ *
+ * @param version the @Version counter, or null for documents written before it existed
+ * @param lastModifiedDate time of the last write, or null if unknown
+ */
+public record DocumentVersion(Long version, LocalDateTime lastModifiedDate) {
+
+    public static DocumentVersion of(Article article) {
+        return new DocumentVersion(article.getVersion(), article.getLastModifiedDate());
+    }
+
+    public static DocumentVersion of(News news) {
+        return new DocumentVersion(news.getVersion(), news.getLastModifiedDate());
+    }
+
+    /**
+     * Strong ETag, or null if the document has no version
+     */
+    public String eTag() {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * Last-Modified as epoch milliseconds, or -1 if unknown
+     */
+    public long lastModifiedMillis() {
+        return lastModifiedDate != null
+                ? lastModifiedDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+    }
+}
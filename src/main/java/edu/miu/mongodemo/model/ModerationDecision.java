@@ -0,0 +1,13 @@
+package edu.miu.mongodemo.model;
+
+import java.util.List;
+
+/**
+ * Bulk moderation verdicts of one worker for comments it has claimed
+ *
+ * @param worker id of the worker that claimed the comments
+ * @param approve ids of comments to approve
+ * @param reject ids of comments to reject
+ */
+public record ModerationDecision(String worker, List<String> approve, List<String> reject) {
+}
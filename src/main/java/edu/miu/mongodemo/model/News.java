@@ -1,26 +1,58 @@
 package edu.miu.mongodemo.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "news")
+// Backing indexes for the NewsRepository finders; each filter is followed by publishedDate
+// so the newest stories can be read straight off the index, and ends in expiryDate so
+// the "live news" filter every finder applies is checked on the index keys without
+// fetching expired documents
+@CompoundIndexes({
+    @CompoundIndex(name = "category_published_live", def = "{'category': 1, 'publishedDate': -1, 'expiryDate': 1}"),
+    @CompoundIndex(name = "reporter_published_live", def = "{'reporter': 1, 'publishedDate': -1, 'expiryDate': 1}"),
+    @CompoundIndex(name = "priority_published_live", def = "{'priority': -1, 'publishedDate': -1, 'expiryDate': 1}"),
+    @CompoundIndex(name = "published_live", def = "{'publishedDate': -1, 'expiryDate': 1}")
+})
 public class News {
     @Id
     private String id;
+    // Text index for relevance-ranked search; headline matches weigh most
+    @TextIndexed(weight = 3)
     private String headline;
+    @TextIndexed(weight = 2)
     private String summary;
+    @TextIndexed
     private String fullText;
     private String reporter;
     private String category; // POLITICS, SPORTS, TECHNOLOGY, BUSINESS, etc.
     private LocalDateTime publishedDate;
+    // TTL index: MongoDB deletes a story one day after it expires. Reads already
+    // leave expired stories out; the grace period gives NewsArchiver time to copy
+    // them to the archive collection first when archiving is enabled.
+    @Indexed(name = "expiry_ttl", expireAfter = "1d")
     private LocalDateTime expiryDate;
     private String imageUrl;
+    // Stored as ObjectIds like the _id they point to, so $graphLookup can follow them
+    @Field(targetType = FieldType.OBJECT_ID)
     private List<String> relatedNewsIds;
     private Integer priority; // 1-10, 10 being highest
+    // Incremented by every save and every MongoTemplate update; the ETag of single-item reads
+    @Version
+    private Long version;
+    // Set by every write; the Last-Modified of single-item reads
+    private LocalDateTime lastModifiedDate;
 
     public News() {
         this.relatedNewsIds = new ArrayList<>();
@@ -125,5 +157,20 @@ public class News {
     public void setPriority(Integer priority) {
         this.priority = priority;
     }
-}
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(LocalDateTime lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+}
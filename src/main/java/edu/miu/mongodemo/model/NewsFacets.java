@@ -0,0 +1,20 @@
+package edu.miu.mongodemo.model;
+
+import java.util.List;
+
+/**
+ * Live news counts per category, reporter and priority band
+ *
+ * Categories and reporters are ordered by count, most stories first.
+ * Priority bands are low (1-3), medium (4-7), high (8-10) and unset
+ * (no priority, or one outside 1-10); bands without stories are left out.
+ */
+public record NewsFacets(List<FacetCount> categories, List<FacetCount> reporters, List<FacetCount> priorityBands) {
+
+    /**
+     * @param value the category, reporter or priority band
+     * @param count live stories with that value
+     */
+    public record FacetCount(String value, long count) {
+    }
+}
@@ -0,0 +1,12 @@
+package edu.miu.mongodemo.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of live news stories published in one hour or day
+ *
+ * @param start first instant of the bucket (local time)
+ * @param count stories published in [start, start + interval)
+ */
+public record NewsHistogramBucket(LocalDateTime start, long count) {
+}
@@ -0,0 +1,117 @@
+package edu.miu.mongodemo.model;
+
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a News item for feeds and lists
+ *
+ * Leaves out fullText and the related news ids. Used as a DTO projection, so
+ * MongoDB only returns these fields.
+ */
+public class NewsSummary {
+    @Id
+    private String id;
+    private String headline;
+    private String summary;
+    private String reporter;
+    private String category;
+    private LocalDateTime publishedDate;
+    private LocalDateTime expiryDate;
+    private String imageUrl;
+    private Integer priority;
+
+    public NewsSummary() {
+    }
+
+    /**
+     * Summary of a News item that is already in memory
+     */
+    public static NewsSummary of(News news) {
+        NewsSummary summary = new NewsSummary();
+        summary.setId(news.getId());
+        summary.setHeadline(news.getHeadline());
+        summary.setSummary(news.getSummary());
+        summary.setReporter(news.getReporter());
+        summary.setCategory(news.getCategory());
+        summary.setPublishedDate(news.getPublishedDate());
+        summary.setExpiryDate(news.getExpiryDate());
+        summary.setImageUrl(news.getImageUrl());
+        summary.setPriority(news.getPriority());
+        return summary;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getHeadline() {
+        return headline;
+    }
+
+    public void setHeadline(String headline) {
+        this.headline = headline;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public String getReporter() {
+        return reporter;
+    }
+
+    public void setReporter(String reporter) {
+        this.reporter = reporter;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public LocalDateTime getPublishedDate() {
+        return publishedDate;
+    }
+
+    public void setPublishedDate(LocalDateTime publishedDate) {
+        this.publishedDate = publishedDate;
+    }
+
+    public LocalDateTime getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDateTime expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+}
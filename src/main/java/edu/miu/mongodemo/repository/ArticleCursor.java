@@ -0,0 +1,61 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.ArticleSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position inside the (publishedDate DESC, _id DESC) article ordering
+ *
+ * The cursor is handed to clients as an opaque URL-safe Base64 token of
+ * "publishedDate|id", so they never depend on the underlying sort keys.
+ * An article without a publishedDate is encoded as "|id" and decodes to a
+ * null publishedDate.
+ */
+public record ArticleCursor(LocalDateTime publishedDate, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ArticleCursor of(Article article) {
+        return new ArticleCursor(article.getPublishedDate(), article.getId());
+    }
+
+    public static ArticleCursor of(ArticleSummary summary) {
+        return new ArticleCursor(summary.getPublishedDate(), summary.getId());
+    }
+
+    public String encode() {
+        String raw = (publishedDate != null ? publishedDate.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}
+     *
+     * @param token opaque cursor, may be null or blank for the first page
+     * @return the decoded cursor, or null when no token was given
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ArticleCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new ArticleCursor(
+                    separator > 0 ? LocalDateTime.parse(raw.substring(0, separator)) : null,
+                    raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -7,10 +7,9 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ArticleRepository extends MongoRepository<Article, String> {
+public interface ArticleRepository extends MongoRepository<Article, String>, ArticleRepositoryCustom {
     List<Article> findByAuthor(String author);
     List<Article> findByStatus(String status);
     List<Article> findByTitleContainingIgnoreCase(String title);
     List<Article> findByTagsContaining(String tag);
 }
-
@@ -0,0 +1,111 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.DocumentVersion;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom fragment for queries that derived finders can't express
+ *
+ * Every update here bumps version (MongoTemplate does it for versioned
+ * entities, bulk updates do it explicitly) and sets lastModifiedDate, so
+ * conditional GETs see changed articles.
+ */
+public interface ArticleRepositoryCustom {
+
+    /**
+     * Keyset page over articles ordered by (publishedDate DESC, _id DESC)
+     *
+     * @param filter optional filter applied before paging (null for all articles)
+     * @param after position of the last article of the previous page (null for the first page)
+     * @param limit maximum number of articles to return
+     * @param type Article, or a DTO projection such as ArticleSummary whose
+     *             properties limit the fields read from MongoDB
+     */
+    <T> List<T> findPage(Criteria filter, ArticleCursor after, int limit, Class<T> type);
+
+    /**
+     * Full-text search over the articles text index (title, content, tags),
+     * ordered by relevance
+     *
+     * @param text search terms; phrases in quotes and -negated terms are supported
+     * @param offset number of ranked results to skip
+     * @param limit maximum number of results to return
+     * @param type Article, or a DTO projection such as ArticleSummary
+     */
+    <T> List<T> searchText(String text, int offset, int limit, Class<T> type);
+
+    /**
+     * Atomically increments viewCount with a server-side $inc
+     *
+     * @param id article id
+     * @param delta number of views to add
+     * @return the article as it is after the increment, or null if it doesn't exist
+     */
+    Article incrementViewCount(String id, int delta);
+
+    /**
+     * Same as {@link #incrementViewCount(String, int)} but only reads back the new count
+     *
+     * @return the new view count, or null if the article doesn't exist
+     */
+    Integer incrementViewCountOnly(String id, int delta);
+
+    /**
+     * Applies many view count deltas as one unordered bulkWrite of $inc updates
+     *
+     * @param deltas views to add, keyed by article id
+     */
+    void incrementViewCounts(Map<String, Integer> deltas);
+
+    /**
+     * Reads only the stored viewCount of an article
+     *
+     * @return the stored view count, or null if the article doesn't exist
+     */
+    Integer findViewCount(String id);
+
+    /**
+     * Reads only viewCount, version and lastModifiedDate of several articles with one $in query
+     *
+     * @return the articles with only those fields (and id) populated; missing articles are absent
+     */
+    List<Article> findViewCounts(Collection<String> ids);
+
+    /**
+     * Sets the given fields with a single $set and returns the updated article
+     *
+     * No read happens before the write; findAndModify returns the new document.
+     *
+     * @param fields values to $set, keyed by Article property name
+     * @param returnFields properties to read back, or null for the whole document
+     * @return the updated article (only returnFields populated), or null if it doesn't exist
+     */
+    Article updateFields(String id, Map<String, Object> fields, Collection<String> returnFields);
+
+    /**
+     * Sets the given fields with a single $set without reading anything back
+     *
+     * @return true if the article exists
+     */
+    boolean updateFields(String id, Map<String, Object> fields);
+
+    /**
+     * Reads only version and lastModifiedDate of an article
+     *
+     * @return the version fields, or null if the article doesn't exist
+     */
+    DocumentVersion findVersion(String id);
+
+    /**
+     * Replaces an article whatever version is stored, incrementing the stored version
+     *
+     * @param article the new document; its version is ignored and set to the new one
+     * @return the replaced (or inserted) article
+     */
+    Article replaceCurrentVersion(Article article);
+}
@@ -0,0 +1,200 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.DocumentVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoTemplate-backed implementation of {@link ArticleRepositoryCustom}
+ *
+ * Spring Data picks this class up by the "Impl" suffix and merges it into
+ * ArticleRepository.
+ */
+public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
+
+    private static final Sort KEYSET_SORT = Sort.by(
+            Sort.Order.desc("publishedDate"),
+            Sort.Order.desc("id"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public <T> List<T> findPage(Criteria filter, ArticleCursor after, int limit, Class<T> type) {
+        List<Criteria> clauses = new ArrayList<>();
+        if (filter != null) {
+            clauses.add(filter);
+        }
+        if (after != null) {
+            clauses.add(seekPast(after));
+        }
+
+        Query query = new Query();
+        if (clauses.size() == 1) {
+            query.addCriteria(clauses.get(0));
+        } else if (clauses.size() > 1) {
+            query.addCriteria(new Criteria().andOperator(clauses));
+        }
+        query.with(KEYSET_SORT).limit(limit);
+
+        return mongoTemplate.query(Article.class)
+                .as(type)
+                .matching(query)
+                .all();
+    }
+
+    /**
+     * Everything after the cursor in KEYSET_SORT order
+     *
+     * Seeks past the previous page instead of skipping: the index walk starts
+     * right after (publishedDate, _id), so cost doesn't grow with page depth.
+     * Articles without a publishedDate sort after all dated ones (null is the
+     * lowest value), and $lt never matches null, so they are added explicitly.
+     */
+    private static Criteria seekPast(ArticleCursor after) {
+        Criteria sameDate = new Criteria().andOperator(
+                Criteria.where("publishedDate").is(after.publishedDate()),
+                Criteria.where("id").lt(after.id()));
+        if (after.publishedDate() == null) {
+            return sameDate;
+        }
+        return new Criteria().orOperator(
+                Criteria.where("publishedDate").lt(after.publishedDate()),
+                sameDate,
+                Criteria.where("publishedDate").is(null));
+    }
+
+    @Override
+    public <T> List<T> searchText(String text, int offset, int limit, Class<T> type) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .skip(offset)
+                .limit(limit);
+        // The score projection disables automatic DTO field restriction, so list the fields explicitly
+        TextSearchSupport.includeFieldsOf(mongoTemplate, type, Article.class, query);
+
+        return mongoTemplate.query(Article.class)
+                .as(type)
+                .matching(query)
+                .all();
+    }
+
+    @Override
+    public Article incrementViewCount(String id, int delta) {
+        // findAndModify applies the $inc and returns the new document in one round trip;
+        // concurrent increments are serialized by the server, so none are lost
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id)),
+                touched(new Update().inc("viewCount", delta)),
+                FindAndModifyOptions.options().returnNew(true),
+                Article.class);
+    }
+
+    @Override
+    public Integer incrementViewCountOnly(String id, int delta) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("viewCount");
+        Article article = mongoTemplate.findAndModify(
+                query,
+                touched(new Update().inc("viewCount", delta)),
+                FindAndModifyOptions.options().returnNew(true),
+                Article.class);
+        return article != null ? article.getViewCount() : null;
+    }
+
+    @Override
+    public void incrementViewCounts(Map<String, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Article.class);
+        deltas.forEach((id, delta) -> bulk.updateOne(
+                Query.query(Criteria.where("id").is(id)),
+                // Bulk updates don't increment @Version on their own
+                touched(new Update().inc("viewCount", delta).inc("version", 1))));
+        bulk.execute();
+    }
+
+    @Override
+    public Integer findViewCount(String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("viewCount");
+        Article article = mongoTemplate.findOne(query, Article.class);
+        if (article == null) {
+            return null;
+        }
+        // An article stored without a count has no views yet
+        return article.getViewCount() != null ? article.getViewCount() : 0;
+    }
+
+    @Override
+    public List<Article> findViewCounts(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("viewCount", "version", "lastModifiedDate");
+        return mongoTemplate.find(query, Article.class);
+    }
+
+    @Override
+    public Article replaceCurrentVersion(Article article) {
+        article.setVersion(VersionedReplace.replace(mongoTemplate, article));
+        return article;
+    }
+
+    @Override
+    public DocumentVersion findVersion(String id) {
+        return mongoTemplate.query(Article.class)
+                .as(DocumentVersion.class)
+                .matching(Query.query(Criteria.where("id").is(id)))
+                .oneValue();
+    }
+
+    @Override
+    public Article updateFields(String id, Map<String, Object> fields, Collection<String> returnFields) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        if (returnFields != null) {
+            returnFields.forEach(field -> query.fields().include(field));
+        }
+        return mongoTemplate.findAndModify(
+                query,
+                toSetUpdate(fields),
+                FindAndModifyOptions.options().returnNew(true),
+                Article.class);
+    }
+
+    @Override
+    public boolean updateFields(String id, Map<String, Object> fields) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(id)),
+                toSetUpdate(fields),
+                Article.class).getMatchedCount() > 0;
+    }
+
+    private static Update toSetUpdate(Map<String, Object> fields) {
+        Update update = new Update();
+        // The update mapper turns a Person value into a DBRef for the @DBRef person property
+        fields.forEach(update::set);
+        return touched(update);
+    }
+
+    /**
+     * Adds the lastModifiedDate that every write sets; the server clock keeps
+     * concurrent writers from different hosts consistent
+     */
+    private static Update touched(Update update) {
+        return update.currentDate("lastModifiedDate");
+    }
+}
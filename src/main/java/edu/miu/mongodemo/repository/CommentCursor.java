@@ -0,0 +1,61 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Comment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position inside a comment thread ordered by {@link CommentSort}
+ *
+ * Encoded as an opaque URL-safe Base64 token of "sort|value|id". The sort is
+ * part of the token so a cursor from a newest-first page can't be replayed
+ * against a most-liked listing.
+ */
+public record CommentCursor(CommentSort sort, Object value, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static CommentCursor of(CommentSort sort, Comment comment) {
+        Object value = sort == CommentSort.LIKES ? comment.getLikes() : comment.getCreatedAt();
+        return new CommentCursor(sort, value, comment.getId());
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}
+     *
+     * @param token opaque cursor, may be null or blank for the first page
+     * @param expectedSort ordering of the requested page
+     * @return the decoded cursor, or null when no token was given
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort
+     */
+    public static CommentCursor decode(String token, CommentSort expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || parts[1].isEmpty() || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            CommentSort sort = CommentSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("Cursor was issued for sort " + sort.property()
+                        + ", not " + expectedSort.property());
+            }
+            Object value = sort == CommentSort.LIKES ? Integer.valueOf(parts[1]) : LocalDateTime.parse(parts[1]);
+            return new CommentCursor(sort, value, parts[2]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom fragment for comment updates that derived finders can't express
+ */
+public interface CommentRepositoryCustom {
+
+    /**
+     * Keyset page of the comments on one content item
+     *
+     * Served by the thread_created / thread_likes indexes, so
+     * only one page of comments is read however long the thread is.
+     *
+     * @param contentId id of the article or news item
+     * @param contentType ARTICLE or NEWS, or null to match either
+     * @param sort ordering; descending with _id as tie-breaker
+     * @param after position of the last comment of the previous page (null for the first page)
+     * @param limit maximum number of comments to return
+     */
+    List<Comment> findThread(String contentId, ContentType contentType, CommentSort sort, CommentCursor after, int limit);
+
+    /**
+     * Comments of the same content item created after the given one, oldest first
+     *
+     * @param lastSeen the newest comment the caller already has (contentId, contentType and createdAt are used)
+     */
+    List<Comment> findThreadAfter(Comment lastSeen, int limit);
+
+    /**
+     * Atomically increments likes with a server-side $inc
+     *
+     * @param id comment id
+     * @param delta number of likes to add
+     * @return the comment as it is after the increment, or null if it doesn't exist
+     */
+    Comment incrementLikes(String id, int delta);
+
+    /**
+     * Same as {@link #incrementLikes(String, int)} but only reads back the given fields
+     *
+     * @param returnFields properties to read back
+     * @return the comment with only returnFields populated, or null if it doesn't exist
+     */
+    Comment incrementLikes(String id, int delta, Collection<String> returnFields);
+
+    /**
+     * Applies many like deltas as one unordered bulkWrite of $inc updates
+     *
+     * @param deltas likes to add, keyed by comment id
+     */
+    void incrementLikes(Map<String, Integer> deltas);
+
+    /**
+     * Reads only the stored likes of a comment
+     *
+     * @return the stored like count, or null if the comment doesn't exist
+     */
+    Integer findLikes(String id);
+
+    /**
+     * Reads only contentId, contentType and likes of several comments with one $in query
+     */
+    List<Comment> findContentRefs(Collection<String> ids);
+
+    /**
+     * Inserts comments with unordered bulk inserts (insertMany with ordered=false)
+     *
+     * A failing comment (e.g. a duplicate id) doesn't stop the others from being
+     * inserted. Comments without an id are assigned one before the insert.
+     *
+     * @return error message keyed by the list position of every comment that
+     *         was not inserted; empty if all were
+     */
+    Map<Integer, String> insertUnordered(List<Comment> comments);
+
+    /**
+     * Replaces a comment (inserting it if it doesn't exist) in one round trip
+     *
+     * The stored moderation state and lease are kept; an inserted comment is pending.
+     *
+     * @return the comment as it was before the replacement, or null if it was inserted
+     */
+    Comment replace(Comment comment);
+
+    /**
+     * Deletes a comment in one round trip
+     *
+     * @return the deleted comment, or null if it didn't exist
+     */
+    Comment remove(String id);
+
+    /**
+     * Sets isApproved on a comment that isn't approved yet
+     *
+     * @return the approved comment, or null if it doesn't exist or was already approved
+     */
+    Comment approve(String id);
+
+    /**
+     * Leases up to limit pending comments (oldest first) to a moderator worker
+     *
+     * Comments that are unclaimed or whose lease has expired are eligible. The
+     * claim is a conditional updateMany, so when several workers race for the
+     * same comments each one ends up with a disjoint set.
+     *
+     * @param worker id of the claiming worker
+     * @param lease how long the comments stay reserved for the worker
+     * @return the claimed comments
+     */
+    List<Comment> claimPending(String worker, int limit, Duration lease);
+
+    /**
+     * Approves pending comments leased to worker and releases their lease
+     *
+     * Comments whose lease was taken over by another worker are left alone.
+     * The approved comments are identified by a token written in the same
+     * updateMany, so the result holds exactly the comments this call changed.
+     *
+     * @return the approved comments with only contentId and contentType populated
+     */
+    List<Comment> approveClaimed(Collection<String> ids, String worker);
+
+    /**
+     * Approves or rejects pending comments leased to worker with one updateMany
+     * and releases their lease
+     *
+     * Comments whose lease was taken over by another worker are left alone.
+     *
+     * @return number of comments decided
+     */
+    long decide(Collection<String> ids, String worker, boolean approve);
+
+    /**
+     * Number of comments waiting for moderation, claimed or not
+     */
+    long countPending();
+
+    /**
+     * Number of pending comments currently leased to a worker
+     */
+    long countClaimed();
+}
@@ -0,0 +1,262 @@
+package edu.miu.mongodemo.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoTemplate-backed implementation of {@link CommentRepositoryCustom}
+ */
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Comment> findThread(String contentId, ContentType contentType, CommentSort sort, CommentCursor after, int limit) {
+        // With an $in on contentType the planner merges one index range per type
+        // (SORT_MERGE) instead of sorting the whole thread in memory, also when
+        // the caller doesn't know the content type
+        Criteria criteria = Criteria.where("contentId").is(contentId)
+                .and("contentType").in(contentType != null ? List.of(contentType) : Comment.CONTENT_TYPES);
+        if (after != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where(sort.property()).lt(after.value()),
+                    new Criteria().andOperator(
+                            Criteria.where(sort.property()).is(after.value()),
+                            Criteria.where("id").lt(after.id())));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Order.desc(sort.property()), Sort.Order.desc("id")))
+                .limit(limit);
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public List<Comment> findThreadAfter(Comment lastSeen, int limit) {
+        // Walks thread_created backwards from the last seen (createdAt, _id)
+        Query query = Query.query(Criteria.where("contentId").is(lastSeen.getContentId())
+                        .and("contentType").is(lastSeen.getContentType())
+                        .orOperator(
+                                Criteria.where("createdAt").gt(lastSeen.getCreatedAt()),
+                                new Criteria().andOperator(
+                                        Criteria.where("createdAt").is(lastSeen.getCreatedAt()),
+                                        Criteria.where("id").gt(lastSeen.getId()))))
+                .with(Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id")))
+                .limit(limit);
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public Comment incrementLikes(String id, int delta) {
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id)),
+                new Update().inc("likes", delta),
+                FindAndModifyOptions.options().returnNew(true),
+                Comment.class);
+    }
+
+    @Override
+    public Comment incrementLikes(String id, int delta, Collection<String> returnFields) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        returnFields.forEach(field -> query.fields().include(field));
+        return mongoTemplate.findAndModify(
+                query,
+                new Update().inc("likes", delta),
+                FindAndModifyOptions.options().returnNew(true),
+                Comment.class);
+    }
+
+    @Override
+    public void incrementLikes(Map<String, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class);
+        deltas.forEach((id, delta) -> bulk.updateOne(
+                Query.query(Criteria.where("id").is(id)),
+                new Update().inc("likes", delta)));
+        bulk.execute();
+    }
+
+    @Override
+    public Integer findLikes(String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("likes");
+        Comment comment = mongoTemplate.findOne(query, Comment.class);
+        return comment != null ? comment.getLikes() : null;
+    }
+
+    @Override
+    public List<Comment> findContentRefs(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("contentId", "contentType", "likes");
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Comment> comments) {
+        if (comments.isEmpty()) {
+            return Map.of();
+        }
+        // Ids are assigned up front so callers know them even though bulk inserts don't report them back
+        comments.stream()
+                .filter(comment -> comment.getId() == null)
+                .forEach(comment -> comment.setId(new ObjectId().toHexString()));
+
+        Map<Integer, String> failures = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class)
+                    .insert(comments)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public Comment replace(Comment comment) {
+        // Sets every field a client may change; the stored moderation state and lease
+        // are left alone, and a newly inserted comment starts out pending.
+        // findAndModify returns the previous document by default
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(comment.getId())),
+                new Update()
+                        .set("contentId", comment.getContentId())
+                        .set("contentType", comment.getContentType())
+                        .set("author", comment.getAuthor())
+                        .set("content", comment.getContent())
+                        .set("createdAt", comment.getCreatedAt())
+                        .set("likes", comment.getLikes())
+                        .setOnInsert("isApproved", false),
+                FindAndModifyOptions.options().upsert(true),
+                Comment.class);
+    }
+
+    @Override
+    public Comment remove(String id) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Comment.class);
+    }
+
+    @Override
+    public Comment approve(String id) {
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id).and("isApproved").ne(true)),
+                new Update().set("isApproved", true).unset("isRejected").unset("claimedBy").unset("claimExpiresAt"),
+                FindAndModifyOptions.options().returnNew(true),
+                Comment.class);
+    }
+
+    @Override
+    public List<Comment> claimPending(String worker, int limit, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        Query candidates = Query.query(claimable(now))
+                .with(Sort.by(Sort.Order.asc("createdAt")))
+                .limit(limit);
+        candidates.fields().include("id");
+        List<String> ids = mongoTemplate.find(candidates, Comment.class).stream()
+                .map(Comment::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Re-checking claimability in the update makes the claim safe against concurrent
+        // workers; the lease expiry (stored with millisecond precision) identifies this batch
+        LocalDateTime expiresAt = now.plus(lease).truncatedTo(ChronoUnit.MILLIS);
+        mongoTemplate.updateMulti(
+                Query.query(new Criteria().andOperator(Criteria.where("id").in(ids), claimable(now))),
+                new Update().set("claimedBy", worker).set("claimExpiresAt", expiresAt),
+                Comment.class);
+        return mongoTemplate.find(
+                Query.query(Criteria.where("id").in(ids).and("claimedBy").is(worker).and("claimExpiresAt").is(expiresAt))
+                        .with(Sort.by(Sort.Order.asc("createdAt"))),
+                Comment.class);
+    }
+
+    @Override
+    public List<Comment> approveClaimed(Collection<String> ids, String worker) {
+        // Like claimPending: the update hands the comments to a one-off token so the
+        // read-back only sees the comments this call approved, not those of a worker
+        // that took over an expired lease in between
+        String token = worker + "#" + new ObjectId().toHexString();
+        long approved = mongoTemplate.updateMulti(
+                Query.query(pending().and("id").in(ids).and("claimedBy").is(worker)),
+                new Update().set("isApproved", true).set("claimedBy", token).unset("claimExpiresAt"),
+                Comment.class).getModifiedCount();
+        if (approved == 0) {
+            return List.of();
+        }
+
+        Query query = Query.query(Criteria.where("id").in(ids).and("claimedBy").is(token));
+        query.fields().include("contentId", "contentType");
+        List<Comment> comments = mongoTemplate.find(query, Comment.class);
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(ids).and("claimedBy").is(token)),
+                new Update().unset("claimedBy"),
+                Comment.class);
+        return comments;
+    }
+
+    @Override
+    public long decide(Collection<String> ids, String worker, boolean approve) {
+        Update update = new Update().unset("claimedBy").unset("claimExpiresAt");
+        if (approve) {
+            update.set("isApproved", true);
+        } else {
+            update.set("isRejected", true);
+        }
+        return mongoTemplate.updateMulti(
+                Query.query(pending().and("id").in(ids).and("claimedBy").is(worker)),
+                update,
+                Comment.class).getModifiedCount();
+    }
+
+    @Override
+    public long countPending() {
+        return mongoTemplate.count(Query.query(pending()), Comment.class);
+    }
+
+    @Override
+    public long countClaimed() {
+        return mongoTemplate.count(
+                Query.query(pending().and("claimExpiresAt").gt(LocalDateTime.now())),
+                Comment.class);
+    }
+
+    /**
+     * Comments waiting for moderation; an equality match on both fields so the
+     * moderation index is used (null also matches a missing isRejected)
+     */
+    private static Criteria pending() {
+        return Criteria.where("isApproved").is(false).and("isRejected").is(null);
+    }
+
+    private static Criteria claimable(LocalDateTime now) {
+        return pending().orOperator(
+                Criteria.where("claimExpiresAt").is(null),
+                Criteria.where("claimExpiresAt").lte(now));
+    }
+}
@@ -0,0 +1,43 @@
+package edu.miu.mongodemo.repository;
+
+/**
+ * Orderings of a comment thread; both are descending with _id as tie-breaker
+ */
+public enum CommentSort {
+    /** Newest first */
+    CREATED_AT("createdAt"),
+    /** Most liked first */
+    LIKES("likes");
+
+    private final String property;
+
+    CommentSort(String property) {
+        this.property = property;
+    }
+
+    /**
+     * Comment property the thread is ordered by
+     */
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Parses a request parameter: either the property name ("createdAt", "likes")
+     * or the constant name, case-insensitively
+     *
+     * @param value parameter value, may be null for the default (newest first)
+     * @throws IllegalArgumentException for any other value
+     */
+    public static CommentSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return CREATED_AT;
+        }
+        for (CommentSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(value) || sort.name().equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown comment sort: " + value + " (expected createdAt or likes)");
+    }
+}
@@ -0,0 +1,32 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
+
+/**
+ * Change to apply to the {@link edu.miu.mongodemo.model.CommentStats} of one content item
+ */
+public record CommentStatsDelta(String contentId, ContentType contentType, long total, long approved, long likes) {
+
+    /**
+     * Delta for a comment being added (sign 1) or removed (sign -1)
+     */
+    public static CommentStatsDelta of(Comment comment, int sign) {
+        return new CommentStatsDelta(comment.getContentId(), comment.getContentType(), sign,
+                comment.getIsApproved() ? sign : 0,
+                (long) sign * comment.getLikes());
+    }
+
+    public static CommentStatsDelta likes(Comment comment, long likes) {
+        return new CommentStatsDelta(comment.getContentId(), comment.getContentType(), 0, 0, likes);
+    }
+
+    public CommentStatsDelta plus(CommentStatsDelta other) {
+        return new CommentStatsDelta(contentId, contentType,
+                total + other.total, approved + other.approved, likes + other.likes);
+    }
+
+    public boolean isZero() {
+        return total == 0 && approved == 0 && likes == 0;
+    }
+}
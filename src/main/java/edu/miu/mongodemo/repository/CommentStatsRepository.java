@@ -0,0 +1,13 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.CommentStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommentStatsRepository extends MongoRepository<CommentStats, String>, CommentStatsRepositoryCustom {
+    List<CommentStats> findByContentIdIn(Collection<String> contentIds);
+}
@@ -0,0 +1,23 @@
+package edu.miu.mongodemo.repository;
+
+import java.util.Collection;
+
+/**
+ * Custom fragment for the incremental comment_stats updates
+ */
+public interface CommentStatsRepositoryCustom {
+
+    /**
+     * Applies the deltas as one unordered bulkWrite of upserting $inc updates
+     *
+     * Deltas for the same content item are merged first; stats documents are
+     * created on the first comment of a content item.
+     */
+    void applyDeltas(Collection<CommentStatsDelta> deltas);
+
+    /**
+     * Recomputes every stats document from the comments collection with one
+     * $group aggregation, replacing the current contents of comment_stats
+     */
+    void rebuild();
+}
@@ -0,0 +1,100 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.CommentStats;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoTemplate-backed implementation of {@link CommentStatsRepositoryCustom}
+ */
+public class CommentStatsRepositoryImpl implements CommentStatsRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void applyDeltas(Collection<CommentStatsDelta> deltas) {
+        Map<String, CommentStatsDelta> merged = merge(deltas);
+        if (merged.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CommentStats.class);
+        merged.forEach((id, delta) -> bulk.upsert(Query.query(Criteria.where("id").is(id)), toUpdate(delta, now)));
+        bulk.execute();
+    }
+
+    /**
+     * Sums the deltas per stats document and drops the ones that cancel out
+     */
+    static Map<String, CommentStatsDelta> merge(Collection<CommentStatsDelta> deltas) {
+        Map<String, CommentStatsDelta> merged = new LinkedHashMap<>();
+        for (CommentStatsDelta delta : deltas) {
+            merged.merge(CommentStats.idOf(delta.contentId(), delta.contentType()), delta, CommentStatsDelta::plus);
+        }
+        merged.values().removeIf(CommentStatsDelta::isZero);
+        return merged;
+    }
+
+    /**
+     * Upserting $inc of one stats document
+     */
+    static Update toUpdate(CommentStatsDelta delta, LocalDateTime now) {
+        return new Update()
+                .setOnInsert("contentId", delta.contentId())
+                .setOnInsert("contentType", delta.contentType())
+                .inc("total", delta.total())
+                .inc("approved", delta.approved())
+                .inc("likes", delta.likes())
+                .set("updatedAt", now);
+    }
+
+    @Override
+    public void rebuild() {
+        String comments = mongoTemplate.getCollectionName(Comment.class);
+        // A raw pipeline isn't mapped, so it reads the stored (short) comment field names
+        List<Document> pipeline = List.of(
+                new Document("$group", new Document("_id", new Document("contentId", "$" + stored("contentId"))
+                        .append("contentType", "$" + stored("contentType")))
+                        .append("total", new Document("$sum", 1L))
+                        .append("approved", new Document("$sum",
+                                new Document("$cond", List.of(new Document("$eq", List.of("$" + stored("isApproved"), true)), 1L, 0L))))
+                        .append("likes", new Document("$sum", new Document("$toLong",
+                                new Document("$ifNull", List.of("$" + stored("likes"), 0)))))),
+                new Document("$project", new Document("_id",
+                        new Document("$concat", List.of("$_id.contentType", ":", "$_id.contentId")))
+                        .append("contentId", "$_id.contentId")
+                        .append("contentType", "$_id.contentType")
+                        .append("total", 1)
+                        .append("approved", 1)
+                        .append("likes", 1)
+                        .append("updatedAt", "$$NOW")),
+                // $out swaps the collection atomically and keeps its indexes
+                new Document("$out", mongoTemplate.getCollectionName(CommentStats.class)));
+
+        mongoTemplate.getCollection(comments).aggregate(pipeline).toCollection();
+    }
+
+    /**
+     * Name a Comment property is stored under
+     */
+    private String stored(String property) {
+        return mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Comment.class)
+                .getRequiredPersistentProperty(property)
+                .getFieldName();
+    }
+}
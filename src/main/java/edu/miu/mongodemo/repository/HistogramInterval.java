@@ -0,0 +1,40 @@
+package edu.miu.mongodemo.repository;
+
+/**
+ * Bucket width of a publication date histogram
+ */
+public enum HistogramInterval {
+    HOUR("hour"),
+    DAY("day");
+
+    private final String unit;
+
+    HistogramInterval(String unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * $dateTrunc unit of the bucket
+     */
+    public String unit() {
+        return unit;
+    }
+
+    /**
+     * Parses a request parameter ("hour" or "day", case-insensitively)
+     *
+     * @param value parameter value, may be null for the default (day)
+     * @throws IllegalArgumentException for any other value
+     */
+    public static HistogramInterval fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return DAY;
+        }
+        for (HistogramInterval interval : values()) {
+            if (interval.unit.equalsIgnoreCase(value)) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unknown histogram interval: " + value + " (expected hour or day)");
+    }
+}
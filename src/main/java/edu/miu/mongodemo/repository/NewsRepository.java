@@ -2,17 +2,40 @@ package edu.miu.mongodemo.repository;
 
 import edu.miu.mongodemo.model.News;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * News finders
+ *
+ * Every finder only returns live news: stories without an expiryDate or whose
+ * expiryDate is after the given now (the first parameter of each finder).
+ * $not/$lte expresses that as a single index range that also matches a
+ * missing expiryDate.
+ */
 @Repository
-public interface NewsRepository extends MongoRepository<News, String> {
-    List<News> findByCategory(String category);
-    List<News> findByReporter(String reporter);
-    List<News> findByPublishedDateBetween(LocalDateTime start, LocalDateTime end);
-    List<News> findByPriorityGreaterThanEqual(Integer priority);
-    List<News> findByHeadlineContainingIgnoreCase(String headline);
-}
+public interface NewsRepository extends MongoRepository<News, String>, NewsRepositoryCustom {
+
+    String LIVE = "'expiryDate': { $not: { $lte: ?0 } }";
+
+    @Query(value = "{ " + LIVE + " }", sort = "{ 'publishedDate': -1 }")
+    List<News> findLive(LocalDateTime now);
+
+    @Query("{ 'category': ?1, " + LIVE + " }")
+    List<News> findLiveByCategory(LocalDateTime now, String category);
 
+    @Query("{ 'reporter': ?1, " + LIVE + " }")
+    List<News> findLiveByReporter(LocalDateTime now, String reporter);
+
+    @Query("{ 'priority': { $gte: ?1 }, " + LIVE + " }")
+    List<News> findLiveByPriorityGreaterThanEqual(LocalDateTime now, Integer priority);
+
+    /**
+     * @param headlinePattern regular expression, matched case-insensitively
+     */
+    @Query("{ 'headline': { $regex: ?1, $options: 'i' }, " + LIVE + " }")
+    List<News> findLiveByHeadlineMatching(LocalDateTime now, String headlinePattern);
+}
@@ -0,0 +1,94 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.DocumentVersion;
+import edu.miu.mongodemo.model.News;
+import edu.miu.mongodemo.model.NewsFacets;
+import edu.miu.mongodemo.model.NewsHistogramBucket;
+import edu.miu.mongodemo.model.NewsSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Custom fragment for queries that derived finders can't express
+ */
+public interface NewsRepositoryCustom {
+
+    /**
+     * Full-text search over the news text index (headline, summary, fullText),
+     * ordered by relevance; expired news is left out
+     *
+     * @param text search terms; phrases in quotes and -negated terms are supported
+     * @param offset number of ranked results to skip
+     * @param limit maximum number of results to return
+     */
+    List<News> searchText(String text, int offset, int limit);
+
+    /**
+     * Summaries of the most recently published live news, newest first
+     *
+     * Read off the published index; fullText is never loaded.
+     *
+     * @param since oldest publishedDate to return
+     * @param limit maximum number of results to return
+     */
+    List<NewsSummary> findSummariesPublishedSince(LocalDateTime since, int limit);
+
+    /**
+     * Live news published in [start, end), oldest first, read lazily
+     *
+     * The published_live index serves both the range and the order. Documents
+     * are pulled from the server cursor batchSize at a time as the stream is
+     * consumed; the stream must be closed to release the cursor.
+     *
+     * @param type News for full documents, or NewsSummary to leave out fullText
+     */
+    <T> Stream<T> streamPublishedBetween(LocalDateTime start, LocalDateTime end, int batchSize, Class<T> type);
+
+    /**
+     * Number of live news published in [start, end) per hour or day
+     *
+     * One $group aggregation over the published_live index range; buckets are
+     * aligned to the server's time zone and only non-empty buckets are returned,
+     * in ascending order. Needs MongoDB 5.0 or later ($dateTrunc).
+     */
+    List<NewsHistogramBucket> countPublishedBetween(LocalDateTime start, LocalDateTime end, HistogramInterval interval);
+
+    /**
+     * Expands the related news of several stories with one $graphLookup
+     *
+     * Follows relatedNewsIds up to depth levels (1 = the directly related
+     * stories) through live news only. Related stories are projected without
+     * fullText and ordered by depth, then newest first.
+     *
+     * @return related summaries per live story id, in the order of ids;
+     *         ids of missing or expired stories are left out
+     */
+    Map<String, List<NewsSummary>> findRelated(Collection<String> ids, int depth);
+
+    /**
+     * Counts live news per category, reporter and priority band in one $facet pass
+     *
+     * @param maxValues most frequent categories and reporters to return
+     */
+    NewsFacets countFacets(int maxValues);
+
+    /**
+     * Reads only version and lastModifiedDate of a story
+     *
+     * @param liveAt only match the story if it is live at this time; null to match it regardless
+     * @return the version fields, or null if there is no matching story
+     */
+    DocumentVersion findVersion(String id, LocalDateTime liveAt);
+
+    /**
+     * Replaces a story whatever version is stored, incrementing the stored version
+     *
+     * @param news the new document; its version is ignored and set to the new one
+     * @return the replaced (or inserted) news
+     */
+    News replaceCurrentVersion(News news);
+}
@@ -0,0 +1,207 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.DocumentVersion;
+import edu.miu.mongodemo.model.News;
+import edu.miu.mongodemo.model.NewsFacets;
+import edu.miu.mongodemo.model.NewsHistogramBucket;
+import edu.miu.mongodemo.model.NewsSummary;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * MongoTemplate-backed implementation of {@link NewsRepositoryCustom}
+ */
+public class NewsRepositoryImpl implements NewsRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<News> searchText(String text, int offset, int limit) {
+        TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore();
+        query.addCriteria(live(LocalDateTime.now()));
+        query.skip(offset).limit(limit);
+        return mongoTemplate.find(query, News.class);
+    }
+
+    @Override
+    public List<NewsSummary> findSummariesPublishedSince(LocalDateTime since, int limit) {
+        Query query = Query.query(Criteria.where("publishedDate").gte(since)
+                        .andOperator(live(LocalDateTime.now())))
+                .with(Sort.by(Sort.Order.desc("publishedDate")))
+                .limit(limit);
+        return mongoTemplate.query(News.class)
+                .as(NewsSummary.class)
+                .matching(query)
+                .all();
+    }
+
+    @Override
+    public <T> Stream<T> streamPublishedBetween(LocalDateTime start, LocalDateTime end, int batchSize, Class<T> type) {
+        Query query = Query.query(publishedBetween(start, end))
+                .with(Sort.by(Sort.Order.asc("publishedDate")))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.query(News.class)
+                .as(type)
+                .matching(query)
+                .stream();
+    }
+
+    @Override
+    public List<NewsHistogramBucket> countPublishedBetween(LocalDateTime start, LocalDateTime end,
+                                                           HistogramInterval interval) {
+        AggregationOperation group = context -> new Document("$group", new Document("_id",
+                new Document("$dateTrunc", new Document("date", "$publishedDate")
+                        .append("unit", interval.unit())
+                        .append("timezone", ZoneId.systemDefault().getId())))
+                .append("count", new Document("$sum", 1L)));
+        AggregationOperation sort = context -> new Document("$sort", new Document("_id", 1));
+        AggregationOperation project = context -> new Document("$project", new Document("_id", 0)
+                .append("start", "$_id")
+                .append("count", 1));
+
+        return mongoTemplate.aggregate(
+                Aggregation.newAggregation(News.class, Aggregation.match(publishedBetween(start, end)), group, sort, project),
+                NewsHistogramBucket.class).getMappedResults();
+    }
+
+    private static Criteria publishedBetween(LocalDateTime start, LocalDateTime end) {
+        return Criteria.where("publishedDate").gte(start).lt(end)
+                .andOperator(live(LocalDateTime.now()));
+    }
+
+    @Override
+    public Map<String, List<NewsSummary>> findRelated(Collection<String> ids, int depth) {
+        // A Date rather than a LocalDateTime: restrictSearchWithMatch goes to the server as is
+        Criteria live = Criteria.where("expiryDate").not().lte(new Date());
+        AggregationOperation withoutFullText = context -> new Document("$project",
+                new Document("related.fullText", 0).append("related.relatedNewsIds", 0));
+
+        TypedAggregation<News> aggregation = Aggregation.newAggregation(News.class,
+                Aggregation.match(Criteria.where("id").in(ids).andOperator(live(LocalDateTime.now()))),
+                Aggregation.graphLookup(mongoTemplate.getCollectionName(News.class))
+                        .startWith("relatedNewsIds")
+                        .connectFrom("relatedNewsIds")
+                        .connectTo("_id")
+                        .maxDepth(depth - 1)
+                        .depthField("depth")
+                        .restrict(live)
+                        .as("related"),
+                Aggregation.project("related"),
+                withoutFullText);
+
+        Map<String, List<NewsSummary>> byId = new LinkedHashMap<>();
+        for (Document story : mongoTemplate.aggregate(aggregation, Document.class).getMappedResults()) {
+            String id = story.get("_id").toString();
+            List<NewsSummary> related = story.getList("related", Document.class).stream()
+                    .filter(document -> !id.equals(document.get("_id").toString()))
+                    .sorted(Comparator.<Document>comparingLong(document -> document.get("depth", Number.class).longValue())
+                            .thenComparing(document -> document.getDate("publishedDate"),
+                                    Comparator.nullsLast(Comparator.reverseOrder())))
+                    .map(document -> mongoTemplate.getConverter().read(NewsSummary.class, document))
+                    .toList();
+            byId.put(id, related);
+        }
+
+        Map<String, List<NewsSummary>> ordered = new LinkedHashMap<>();
+        ids.stream().filter(byId::containsKey).forEach(id -> ordered.put(id, byId.get(id)));
+        return ordered;
+    }
+
+    @Override
+    public News replaceCurrentVersion(News news) {
+        news.setVersion(VersionedReplace.replace(mongoTemplate, news));
+        return news;
+    }
+
+    @Override
+    public DocumentVersion findVersion(String id, LocalDateTime liveAt) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (liveAt != null) {
+            criteria.andOperator(live(liveAt));
+        }
+        return mongoTemplate.query(News.class)
+                .as(DocumentVersion.class)
+                .matching(Query.query(criteria))
+                .oneValue();
+    }
+
+    @Override
+    public NewsFacets countFacets(int maxValues) {
+        TypedAggregation<News> aggregation = Aggregation.newAggregation(News.class,
+                Aggregation.match(live(LocalDateTime.now())),
+                // Only the faceted fields flow into the sub-pipelines
+                Aggregation.project("category", "reporter", "priority").andExclude("_id"),
+                Aggregation.facet(
+                                Aggregation.match(Criteria.where("category").ne(null)),
+                                Aggregation.sortByCount("category"),
+                                Aggregation.limit(maxValues)).as("categories")
+                        .and(
+                                Aggregation.match(Criteria.where("reporter").ne(null)),
+                                Aggregation.sortByCount("reporter"),
+                                Aggregation.limit(maxValues)).as("reporters")
+                        .and(
+                                Aggregation.bucket("priority")
+                                        .withBoundaries(1, 4, 8, 11)
+                                        .withDefaultBucket("unset")
+                                        .andOutputCount().as("count")).as("priorityBands"));
+
+        Document facets = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        if (facets == null) {
+            return new NewsFacets(List.of(), List.of(), List.of());
+        }
+        return new NewsFacets(
+                facetCounts(facets, "categories"),
+                facetCounts(facets, "reporters"),
+                facetCounts(facets, "priorityBands"));
+    }
+
+    private static List<NewsFacets.FacetCount> facetCounts(Document facets, String facet) {
+        return facets.getList(facet, Document.class).stream()
+                .map(bucket -> new NewsFacets.FacetCount(
+                        facetValue(bucket.get("_id")),
+                        bucket.get("count", Number.class).longValue()))
+                .toList();
+    }
+
+    /**
+     * Priority buckets are keyed by their lower boundary
+     */
+    private static String facetValue(Object id) {
+        if (id instanceof Number lowerBound) {
+            return switch (lowerBound.intValue()) {
+                case 1 -> "low";
+                case 4 -> "medium";
+                default -> "high";
+            };
+        }
+        return String.valueOf(id);
+    }
+
+    /**
+     * Same filter as {@link NewsRepository#LIVE}: no expiryDate, or one after now
+     */
+    static Criteria live(LocalDateTime now) {
+        return Criteria.where("expiryDate").not().lte(now);
+    }
+}
@@ -0,0 +1,45 @@
+package edu.miu.mongodemo.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position inside a relevance-ranked result (text search)
+ *
+ * Relevance scores have no stable keyset to seek on, so ranked results page by
+ * offset. The offset is still handed out as an opaque token, the same way
+ * {@link ArticleCursor} is, so clients page every listing the same way.
+ */
+public record OffsetCursor(int offset) {
+
+    private static final String PREFIX = "offset:";
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token opaque cursor, may be null or blank for the first page
+     * @return the decoded cursor; offset 0 when no token was given
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static OffsetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return new OffsetCursor(0);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new OffsetCursor(offset);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link CommentRepository}
+ *
+ * Used by the reactive comment endpoints, which stream results to the client
+ * as MongoDB returns them instead of holding a servlet thread per request.
+ */
+@Repository
+public interface ReactiveCommentRepository extends ReactiveMongoRepository<Comment, String>, ReactiveCommentRepositoryCustom {
+
+    /**
+     * Comment thread of a content item; with {@link CommentSort} orderings this
+     * is served by the thread_* indexes
+     */
+    Flux<Comment> findByContentIdAndContentTypeIn(String contentId, Collection<ContentType> contentTypes, Sort sort);
+}
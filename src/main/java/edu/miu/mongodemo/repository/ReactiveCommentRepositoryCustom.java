@@ -0,0 +1,27 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Comment;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Reactive versions of the {@link CommentRepositoryCustom} writes
+ */
+public interface ReactiveCommentRepositoryCustom {
+
+    /**
+     * Atomically increments likes with a server-side $inc
+     *
+     * @param returnFields properties to read back
+     * @return the comment with only returnFields populated; empty if it doesn't exist
+     */
+    Mono<Comment> incrementLikes(String id, int delta, Collection<String> returnFields);
+
+    /**
+     * Deletes a comment in one round trip
+     *
+     * @return the deleted comment; empty if it didn't exist
+     */
+    Mono<Comment> remove(String id);
+}
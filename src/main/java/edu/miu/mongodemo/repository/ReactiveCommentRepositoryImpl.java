@@ -0,0 +1,37 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.Comment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * ReactiveMongoTemplate-backed implementation of {@link ReactiveCommentRepositoryCustom}
+ */
+public class ReactiveCommentRepositoryImpl implements ReactiveCommentRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Comment> incrementLikes(String id, int delta, Collection<String> returnFields) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        returnFields.forEach(field -> query.fields().include(field));
+        return reactiveMongoTemplate.findAndModify(
+                query,
+                new Update().inc("likes", delta),
+                FindAndModifyOptions.options().returnNew(true),
+                Comment.class);
+    }
+
+    @Override
+    public Mono<Comment> remove(String id) {
+        return reactiveMongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Comment.class);
+    }
+}
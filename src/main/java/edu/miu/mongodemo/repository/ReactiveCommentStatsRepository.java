@@ -0,0 +1,17 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.CommentStats;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link CommentStatsRepository}
+ */
+@Repository
+public interface ReactiveCommentStatsRepository extends ReactiveMongoRepository<CommentStats, String>,
+        ReactiveCommentStatsRepositoryCustom {
+    Flux<CommentStats> findByContentIdIn(Collection<String> contentIds);
+}
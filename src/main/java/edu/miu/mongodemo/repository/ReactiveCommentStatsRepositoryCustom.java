@@ -0,0 +1,16 @@
+package edu.miu.mongodemo.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Reactive version of {@link CommentStatsRepositoryCustom#applyDeltas(Collection)}
+ */
+public interface ReactiveCommentStatsRepositoryCustom {
+
+    /**
+     * Applies the deltas as one unordered bulkWrite of upserting $inc updates
+     */
+    Mono<Void> applyDeltas(Collection<CommentStatsDelta> deltas);
+}
@@ -0,0 +1,38 @@
+package edu.miu.mongodemo.repository;
+
+import edu.miu.mongodemo.model.CommentStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * ReactiveMongoTemplate-backed implementation of {@link ReactiveCommentStatsRepositoryCustom}
+ */
+public class ReactiveCommentStatsRepositoryImpl implements ReactiveCommentStatsRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Void> applyDeltas(Collection<CommentStatsDelta> deltas) {
+        Map<String, CommentStatsDelta> merged = CommentStatsRepositoryImpl.merge(deltas);
+        if (merged.isEmpty()) {
+            return Mono.empty();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ReactiveBulkOperations bulk = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CommentStats.class);
+        merged.forEach((id, delta) -> bulk.upsert(
+                Query.query(Criteria.where("id").is(id)),
+                CommentStatsRepositoryImpl.toUpdate(delta, now)));
+        return bulk.execute().then();
+    }
+}
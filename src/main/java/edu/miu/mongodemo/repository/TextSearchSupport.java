@@ -0,0 +1,32 @@
+package edu.miu.mongodemo.repository;
+
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Helpers shared by the text search repository fragments
+ */
+final class TextSearchSupport {
+
+    private TextSearchSupport() {
+    }
+
+    /**
+     * Restricts a query to the properties of a DTO projection
+     *
+     * Text queries project the relevance score, and once a query has any
+     * projection Spring Data no longer derives one from the DTO type, so the
+     * DTO's fields are added here. Nothing is added when reading the full entity.
+     */
+    static void includeFieldsOf(MongoTemplate mongoTemplate, Class<?> type, Class<?> entityType, Query query) {
+        if (type == entityType) {
+            return;
+        }
+        mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type)
+                .doWithProperties((PropertyHandler<MongoPersistentProperty>) property ->
+                        query.fields().include(property.getName()));
+    }
+}
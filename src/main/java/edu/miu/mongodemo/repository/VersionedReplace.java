@@ -0,0 +1,50 @@
+package edu.miu.mongodemo.repository;
+
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+/**
+ * Unconditional replacement of @Version-ed documents
+ */
+final class VersionedReplace {
+
+    private VersionedReplace() {
+    }
+
+    /**
+     * Replaces (or inserts) a document whatever its stored version, in one round trip
+     *
+     * A save() of an entity without a version would insert, and one with a
+     * version read first would fail on any write in between. Instead the
+     * entity is written with a pipeline update that swaps in the new document
+     * and increments the stored version on the server.
+     *
+     * @param entity the new document; its id selects the document to replace and its version is ignored
+     * @return the version the document has after the replacement
+     */
+    static long replace(MongoTemplate mongoTemplate, Object entity) {
+        Document replacement = new Document();
+        mongoTemplate.getConverter().write(entity, replacement);
+        replacement.remove("version");
+
+        // $literal keeps string values starting with "$" from being read as field paths
+        Document stage = new Document("$replaceWith", new Document("$mergeObjects", List.of(
+                new Document("$literal", replacement),
+                new Document("version", new Document("$add", List.of(
+                        new Document("$ifNull", List.of("$version", -1L)), 1L))))));
+
+        Document updated = mongoTemplate.getCollection(mongoTemplate.getCollectionName(entity.getClass()))
+                .findOneAndUpdate(
+                        new Document("_id", replacement.get("_id")),
+                        List.of(stage),
+                        new FindOneAndUpdateOptions()
+                                .upsert(true)
+                                .returnDocument(ReturnDocument.AFTER)
+                                .projection(new Document("version", 1)));
+        return ((Number) updated.get("version")).longValue();
+    }
+}
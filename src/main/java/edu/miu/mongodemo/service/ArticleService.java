@@ -2,22 +2,44 @@ package edu.miu.mongodemo.service;
 
 import edu.miu.mongodemo.controller.WebSocketArticleController;
 import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.ArticlePatch;
+import edu.miu.mongodemo.model.ArticleSummary;
+import edu.miu.mongodemo.model.CursorPage;
+import edu.miu.mongodemo.model.DocumentVersion;
+import edu.miu.mongodemo.repository.ArticleCursor;
 import edu.miu.mongodemo.repository.ArticleRepository;
+import edu.miu.mongodemo.repository.OffsetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
  * Article Service with WebSocket Integration
  * 
  * This service demonstrates how to integrate WebSocket broadcasting
  * from the service layer, not just controllers.
+ * 
+ * Single-article reads go through the "articles" cache (Caffeine, see
+ * spring.cache.* in application.properties). Every write path evicts or
+ * replaces the affected entry, so readers never see a stale article for
+ * longer than the cache TTL even if a write bypasses this service.
  */
 @Service
 public class ArticleService {
+
+    public static final String ARTICLE_CACHE = "articles";
     
     @Autowired
     private ArticleRepository articleRepository;
@@ -37,12 +59,146 @@ public class ArticleService {
     @Lazy
     private WebSocketArticleController webSocketController;
 
+    @Autowired
+    private ViewCountBuffer viewCountBuffer;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PersonReferenceLoader personReferenceLoader;
+
+    /**
+     * When enabled, views are accumulated in {@link ViewCountBuffer} and written
+     * in periodic bulk flushes instead of one $inc per view
+     */
+    @Value("${articles.views.write-behind.enabled:true}")
+    private boolean writeBehindViews;
+
+    @Value("${articles.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${articles.page.max-size:100}")
+    private int maxPageSize;
+
     public List<Article> getAllArticles() {
-        return articleRepository.findAll();
+        return personReferenceLoader.resolveAll(articleRepository.findAll());
     }
 
+    /**
+     * Keyset-paginated article listings
+     *
+     * Pages are ordered by (publishedDate DESC, _id DESC) and continue from the
+     * opaque cursor returned with the previous page, so every request reads at
+     * most one page worth of documents no matter how large the collection is.
+     *
+     * @param cursor cursor of the previous page, or null for the first page
+     * @param size requested page size; null uses the default, larger values are capped
+     * @param type Article for full documents, or ArticleSummary to leave out content and person
+     */
+    public <T> CursorPage<T> getArticlePage(String cursor, Integer size, Class<T> type) {
+        return findPage(null, cursor, size, type);
+    }
+
+    public <T> CursorPage<T> getArticlesByAuthor(String author, String cursor, Integer size, Class<T> type) {
+        return findPage(Criteria.where("author").is(author), cursor, size, type);
+    }
+
+    public <T> CursorPage<T> getArticlesByStatus(String status, String cursor, Integer size, Class<T> type) {
+        return findPage(Criteria.where("status").is(status), cursor, size, type);
+    }
+
+    public <T> CursorPage<T> searchArticlesByTitle(String title, String cursor, Integer size, Class<T> type) {
+        return findPage(Criteria.where("title").regex(Pattern.quote(title), "i"), cursor, size, type);
+    }
+
+    public <T> CursorPage<T> getArticlesByTag(String tag, String cursor, Integer size, Class<T> type) {
+        return findPage(Criteria.where("tags").is(tag), cursor, size, type);
+    }
+
+    private <T> CursorPage<T> findPage(Criteria filter, String cursor, Integer size, Class<T> type) {
+        int limit = resolvePageSize(size);
+        // Fetch one extra document to know whether another page exists
+        List<T> items = resolvePersons(
+                articleRepository.findPage(filter, ArticleCursor.decode(cursor), limit + 1, type), type);
+
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = cursorOf(items.get(limit - 1)).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Relevance-ranked full-text search over title, content and tags
+     *
+     * Backed by the articles text index, so only matching documents are read.
+     * Unlike the keyset listings, the cursor of a ranked result encodes an offset.
+     *
+     * @param text search terms
+     * @param cursor cursor of the previous page, or null for the first page
+     * @param size requested page size; null uses the default, larger values are capped
+     * @param type Article for full documents, or ArticleSummary to leave out content and person
+     */
+    public <T> CursorPage<T> searchArticles(String text, String cursor, Integer size, Class<T> type) {
+        int limit = resolvePageSize(size);
+        int offset = OffsetCursor.decode(cursor).offset();
+        List<T> items = resolvePersons(articleRepository.searchText(text, offset, limit + 1, type), type);
+
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = new OffsetCursor(offset + limit).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private <T> List<T> resolvePersons(List<T> items, Class<T> type) {
+        if (type == Article.class) {
+            @SuppressWarnings("unchecked")
+            List<Article> articles = (List<Article>) items;
+            personReferenceLoader.resolveAll(articles);
+        }
+        return items;
+    }
+
+    private static ArticleCursor cursorOf(Object item) {
+        if (item instanceof ArticleSummary summary) {
+            return ArticleCursor.of(summary);
+        }
+        return ArticleCursor.of((Article) item);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + size);
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    @Cacheable(cacheNames = ARTICLE_CACHE, unless = "#result == null")
     public Optional<Article> getArticleById(String id) {
-        return articleRepository.findById(id);
+        return articleRepository.findById(id).map(personReferenceLoader::resolve);
+    }
+
+    /**
+     * Version and last modification time of an article, for conditional GETs
+     *
+     * Taken from the cached article when there is one, otherwise read from
+     * MongoDB without the article content.
+     *
+     * @return the version fields, or empty if the article doesn't exist
+     */
+    public Optional<DocumentVersion> getArticleVersion(String id) {
+        Article cached = articleCache().get(id, Article.class);
+        if (cached != null) {
+            return Optional.of(DocumentVersion.of(cached));
+        }
+        return Optional.ofNullable(articleRepository.findVersion(id));
     }
 
     /**
@@ -52,6 +208,8 @@ public class ArticleService {
      * to provide real-time updates when data changes
      */
     public Article createArticle(Article article) {
+        article.setVersion(null);
+        article.setLastModifiedDate(LocalDateTime.now());
         Article savedArticle = articleRepository.save(article);
         
         // Broadcast the creation via WebSocket
@@ -64,29 +222,85 @@ public class ArticleService {
         return savedArticle;
     }
 
+    /**
+     * Replaces an article
+     *
+     * A body carrying a version only replaces that version of the article
+     * (OptimisticLockingFailureException otherwise); without one, whatever
+     * version is stored is replaced in one unconditioned write.
+     */
+    @CacheEvict(cacheNames = ARTICLE_CACHE, key = "#id")
     public Article updateArticle(String id, Article article) {
         article.setId(id);
+        article.setLastModifiedDate(LocalDateTime.now());
+        if (article.getVersion() == null) {
+            return articleRepository.replaceCurrentVersion(article);
+        }
         return articleRepository.save(article);
     }
 
+    /**
+     * Partially updates an article with a field-level $set
+     * 
+     * Unlike updateArticle, the article is not read first and only the
+     * changed fields are sent to MongoDB.
+     * 
+     * @param id Article ID
+     * @param patch Fields to change; null fields are left untouched
+     * @return The whole updated article, or empty if it doesn't exist
+     */
+    @CacheEvict(cacheNames = ARTICLE_CACHE, key = "#id")
+    public Optional<Article> patchArticle(String id, ArticlePatch patch) {
+        return patchArticle(id, patch, null);
+    }
+
+    /**
+     * Partially updates an article and reads back only the given fields
+     * 
+     * @param returnFields Article properties to read back, or null for all of them
+     * @return The updated article with only returnFields populated, or empty if it doesn't exist
+     */
+    @CacheEvict(cacheNames = ARTICLE_CACHE, key = "#id")
+    public Optional<Article> patchArticle(String id, ArticlePatch patch, Collection<String> returnFields) {
+        if (patch.isEmpty()) {
+            return articleRepository.findById(id).map(personReferenceLoader::resolve);
+        }
+        Article updatedArticle = articleRepository.updateFields(id, patch.toFieldMap(), returnFields);
+        return Optional.ofNullable(personReferenceLoader.resolve(updatedArticle));
+    }
+
+    /**
+     * Partially updates an article without reading anything back
+     * 
+     * @return true if the article exists
+     */
+    @CacheEvict(cacheNames = ARTICLE_CACHE, key = "#id")
+    public boolean applyPatch(String id, ArticlePatch patch) {
+        if (patch.isEmpty()) {
+            return articleRepository.existsById(id);
+        }
+        return articleRepository.updateFields(id, patch.toFieldMap());
+    }
+
+    @CacheEvict(cacheNames = ARTICLE_CACHE, key = "#id")
     public void deleteArticle(String id) {
         articleRepository.deleteById(id);
     }
 
     public List<Article> getArticlesByAuthor(String author) {
-        return articleRepository.findByAuthor(author);
+        return personReferenceLoader.resolveAll(articleRepository.findByAuthor(author));
     }
 
     public List<Article> getArticlesByStatus(String status) {
-        return articleRepository.findByStatus(status);
+        return personReferenceLoader.resolveAll(articleRepository.findByStatus(status));
     }
 
     public List<Article> searchArticlesByTitle(String title) {
-        return articleRepository.findByTitleContainingIgnoreCase(title);
+        return personReferenceLoader.resolveAll(articleRepository.findByTitleContainingIgnoreCase(title));
     }
 
     public List<Article> getArticlesByTag(String tag) {
-        return articleRepository.findByTagsContaining(tag);
+        return personReferenceLoader.resolveAll(articleRepository.findByTagsContaining(tag));
     }
 
     /**
@@ -97,26 +311,106 @@ public class ArticleService {
      * - Broadcast the new count to all subscribers
      * - Enables live view count displays on article pages
      * 
+     * With write-behind enabled the view is only recorded in memory; the returned
+     * article carries the stored count plus the views still waiting to be flushed,
+     * and the WebSocket broadcast happens once per article per flush.
+     * Otherwise the increment is a single server-side $inc (findAndModify), so
+     * concurrent viewers never overwrite each other's updates.
+     * 
      * @param id Article ID
      * @return Updated article with new view count
      */
     public Optional<Article> incrementViewCount(String id) {
-        Optional<Article> articleOpt = articleRepository.findById(id);
-        
-        if (articleOpt.isPresent()) {
-            Article article = articleOpt.get();
-            article.setViewCount(article.getViewCount() + 1);
-            Article updatedArticle = articleRepository.save(article);
-            
-            // Broadcast view count update via WebSocket
-            // All clients subscribed to /topic/article/{id}/views will receive this
-            // @Lazy ensures webSocketController is initialized when needed
-            webSocketController.broadcastViewCount(updatedArticle.getId(), updatedArticle.getViewCount());
-            
-            return Optional.of(updatedArticle);
+        if (writeBehindViews) {
+            Article cached = findCached(id);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            int stored = cached.getViewCount() != null ? cached.getViewCount() : 0;
+            viewCountBuffer.rememberStoredViews(id, stored);
+            viewCountBuffer.record(id);
+            // Copy so the cached instance keeps the stored count
+            Article article = new Article(cached);
+            article.setViewCount(viewCountBuffer.views(id, stored));
+            return Optional.of(article);
         }
-        
-        return Optional.empty();
+
+        Article updatedArticle = personReferenceLoader.resolve(articleRepository.incrementViewCount(id, 1));
+        if (updatedArticle == null) {
+            return Optional.empty();
+        }
+        // findAndModify returned the whole new document, so refresh the entry instead of evicting it
+        articleCache().put(id, updatedArticle);
+
+        // Broadcast view count update via WebSocket
+        // All clients subscribed to /topic/article/{id}/views will receive this
+        // @Lazy ensures webSocketController is initialized when needed
+        webSocketController.broadcastViewCount(updatedArticle.getId(), updatedArticle.getViewCount());
+
+        return Optional.of(updatedArticle);
     }
-}
 
+    /**
+     * Increments view count and returns only the new count
+     * 
+     * Cheaper variant of {@link #incrementViewCount(String)} for callers that
+     * don't need the article itself (only viewCount is read back).
+     * 
+     * @param id Article ID
+     * @return The new view count, or empty if the article doesn't exist
+     */
+    public Optional<Integer> incrementViewCountOnly(String id) {
+        if (writeBehindViews) {
+            // Only the count is needed: it comes from the buffer, or from the cached article,
+            // and is only read (projected, without loading the cache) for the first view
+            Integer stored = viewCountBuffer.storedViews(id);
+            if (stored == null) {
+                Article cached = articleCache().get(id, Article.class);
+                stored = cached != null
+                        ? (cached.getViewCount() != null ? cached.getViewCount() : 0)
+                        : articleRepository.findViewCount(id);
+                if (stored == null) {
+                    return Optional.empty();
+                }
+                viewCountBuffer.rememberStoredViews(id, stored);
+            }
+            viewCountBuffer.record(id);
+            return Optional.of(viewCountBuffer.views(id, stored));
+        }
+
+        Integer viewCount = articleRepository.incrementViewCountOnly(id, 1);
+        if (viewCount == null) {
+            return Optional.empty();
+        }
+        evictFromCache(id);
+        webSocketController.broadcastViewCount(id, viewCount);
+        return Optional.of(viewCount);
+    }
+
+    /**
+     * Removes an article from the cache, for writes that don't go through
+     * the @CacheEvict-annotated methods (e.g. bulk view count flushes)
+     */
+    public void evictFromCache(String id) {
+        articleCache().evict(id);
+    }
+
+    /**
+     * Read-through lookup for callers inside this class, where the
+     * {@code @Cacheable} proxy on getArticleById doesn't apply
+     */
+    private Article findCached(String id) {
+        Article cached = articleCache().get(id, Article.class);
+        if (cached == null) {
+            cached = personReferenceLoader.resolve(articleRepository.findById(id).orElse(null));
+            if (cached != null) {
+                articleCache().put(id, cached);
+            }
+        }
+        return cached;
+    }
+
+    private Cache articleCache() {
+        return cacheManager.getCache(ARTICLE_CACHE);
+    }
+}
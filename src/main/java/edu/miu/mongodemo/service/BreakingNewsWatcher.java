@@ -0,0 +1,228 @@
+package edu.miu.mongodemo.service;
+
+import com.mongodb.MongoException;
+import edu.miu.mongodemo.model.News;
+import edu.miu.mongodemo.model.NewsSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Pushes breaking news to clients as soon as it is inserted
+ *
+ * Watches the news collection with a change stream (reactive driver) that only
+ * passes inserts with priority >= news.breaking.priority-threshold, and sends
+ * the summary of every such story to:
+ * - STOMP subscribers of /topic/news/breaking
+ * - SSE subscribers of GET /api/news/breaking (see {@link #subscribe()})
+ *
+ * The resume token of the last pushed event is stored in
+ * news.breaking.state-collection after the push, so a restart resumes right
+ * after it: events inserted while the application was down are delivered and
+ * nothing already pushed is replayed, except the one event in flight if the
+ * process dies between the push and the token write (clients de-duplicate by id).
+ * If the token has fallen off the oplog, the watcher starts over from the
+ * current time. Connection errors are retried with backoff.
+ *
+ * Slow clients can't hold memory: each SSE subscriber has its own buffer of
+ * news.breaking.subscriber-buffer stories that drops the oldest story when
+ * full, and STOMP sessions are bounded by the send buffer limits set in
+ * WebSocketConfig.
+ *
+ * Change streams need a replica set (or sharded cluster), so the watcher is
+ * disabled by default (news.breaking.enabled).
+ *
+ * Metrics:
+ * - news.breaking.published: breaking stories pushed
+ * - news.breaking.dropped: stories dropped from full SSE subscriber buffers
+ * - news.breaking.subscribers: connected SSE subscribers
+ */
+@Component
+public class BreakingNewsWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BreakingNewsWatcher.class);
+
+    public static final String BREAKING_NEWS_TOPIC = "/topic/news/breaking";
+
+    private static final String STREAM_ID = "breaking-news";
+
+    /**
+     * ChangeStreamHistoryLost and ChangeStreamFatalError: the stored token can't be resumed from
+     */
+    private static final Set<Integer> UNRESUMABLE_ERROR_CODES = Set.of(286, 280);
+
+    private final Sinks.Many<NewsSummary> sink = Sinks.many().multicast().directBestEffort();
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${news.breaking.enabled:false}")
+    private boolean enabled;
+
+    @Value("${news.breaking.priority-threshold:8}")
+    private int priorityThreshold;
+
+    @Value("${news.breaking.state-collection:change_stream_state}")
+    private String stateCollection;
+
+    @Value("${news.breaking.subscriber-buffer:100}")
+    private int subscriberBuffer;
+
+    private Counter published;
+    private Counter dropped;
+    private Disposable subscription;
+
+    @PostConstruct
+    public void start() {
+        published = Counter.builder("news.breaking.published")
+                .description("Breaking news stories pushed to subscribers")
+                .register(meterRegistry);
+        dropped = Counter.builder("news.breaking.dropped")
+                .description("Breaking news stories dropped because an SSE subscriber's buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("news.breaking.subscribers", sink, Sinks.Many::currentSubscriberCount)
+                .description("Connected breaking news SSE subscribers")
+                .register(meterRegistry);
+
+        if (enabled) {
+            subscription = watch().subscribe();
+            logger.info("Watching news for breaking stories (priority >= {})", priorityThreshold);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        sink.tryEmitComplete();
+    }
+
+    /**
+     * Breaking stories pushed from now on, for one subscriber
+     *
+     * Each subscriber gets its own bounded buffer, so a slow one only loses
+     * its own oldest stories and never holds back the others.
+     */
+    public Flux<NewsSummary> subscribe() {
+        return sink.asFlux()
+                .onBackpressureBuffer(subscriberBuffer, story -> dropped.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    private Flux<ChangeStreamEvent<News>> watch() {
+        // Deferred so every retry resumes from the last stored token
+        return Flux.defer(() -> loadResumeToken()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMapMany(token -> reactiveMongoTemplate.changeStream(
+                                reactiveMongoTemplate.getCollectionName(News.class), options(token), News.class)))
+                .concatMap(this::push)
+                .onErrorResume(BreakingNewsWatcher::isUnresumable, e -> {
+                    logger.warn("Breaking news resume token is no longer in the oplog; restarting from now", e);
+                    return clearResumeToken().then(Mono.error(e));
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofMinutes(1))
+                        // Start from the minimum backoff again once the stream pushed an event
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> logger.warn("Breaking news change stream failed, retrying",
+                                signal.failure())));
+    }
+
+    private ChangeStreamOptions options(Optional<BsonDocument> resumeToken) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                // Filtered on the server, so only breaking inserts cross the wire
+                .filter(new Document("$match", new Document("operationType", "insert")
+                        .append("fullDocument.priority", new Document("$gte", priorityThreshold))));
+        resumeToken.ifPresent(options::resumeAfter);
+        return options.build();
+    }
+
+    /**
+     * Pushes one event and stores its resume token
+     *
+     * @return the pushed event, so the retry backoff sees that the stream is healthy again
+     */
+    private Mono<ChangeStreamEvent<News>> push(ChangeStreamEvent<News> event) {
+        News news = event.getBody();
+        if (news != null) {
+            NewsSummary summary = NewsSummary.of(news);
+            try {
+                messagingTemplate.convertAndSend(BREAKING_NEWS_TOPIC, summary);
+            } catch (Exception e) {
+                logger.warn("Failed to push breaking news {} over STOMP", summary.getId(), e);
+            }
+            sink.tryEmitNext(summary);
+            published.increment();
+        }
+        return saveResumeToken(event.getResumeToken()).thenReturn(event);
+    }
+
+    private Mono<BsonDocument> loadResumeToken() {
+        return reactiveMongoTemplate.findById(STREAM_ID, Document.class, stateCollection)
+                .mapNotNull(state -> state.get("resumeToken", Document.class))
+                .map(Document::toBsonDocument);
+    }
+
+    private Mono<Void> saveResumeToken(BsonValue token) {
+        if (token == null) {
+            return Mono.empty();
+        }
+        return reactiveMongoTemplate.upsert(
+                        Query.query(Criteria.where("_id").is(STREAM_ID)),
+                        Update.update("resumeToken", Document.parse(token.asDocument().toJson()))
+                                .set("updatedAt", new Date()),
+                        stateCollection)
+                .then();
+    }
+
+    private Mono<Void> clearResumeToken() {
+        return reactiveMongoTemplate.remove(Query.query(Criteria.where("_id").is(STREAM_ID)), stateCollection)
+                .then();
+    }
+
+    private static boolean isUnresumable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && UNRESUMABLE_ERROR_CODES.contains(mongoException.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
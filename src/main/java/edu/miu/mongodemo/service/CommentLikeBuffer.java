@@ -0,0 +1,288 @@
+package edu.miu.mongodemo.service;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.repository.CommentRepository;
+import edu.miu.mongodemo.repository.CommentStatsDelta;
+import edu.miu.mongodemo.repository.CommentStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalescing buffer for comment likes
+ *
+ * Works like {@link ViewCountBuffer}: likes are accumulated in one LongAdder
+ * per comment and every flush interval the aggregated deltas are written with
+ * one unordered bulkWrite of $inc updates, followed by one bulk update of the
+ * affected comment stats and a push of the new counts to comment subscribers.
+ * Only used when comments.likes.write-behind.enabled=true.
+ *
+ * The buffer also answers the like count of every comment it is buffering
+ * ({@link #likes}): the stored count is read once, the first time a comment is
+ * liked, and afterwards kept current from the counts each flush reads back, so
+ * a like costs no database round trip. Drained deltas stay counted as pending
+ * until that read-back, so the count never dips while a flush is in progress.
+ *
+ * Metrics:
+ * - comments.likes.buffered: likes recorded but not yet written to MongoDB
+ * - comments.likes.flushed: likes written to MongoDB
+ * - comments.likes.flush: duration of each flush
+ */
+@Component
+public class CommentLikeBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentLikeBuffer.class);
+
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Adders removed because they were idle at the last flush, drained once more
+     * on the next flush (see ViewCountBuffer#retired)
+     */
+    private Map<String, LongAdder> retired = new HashMap<>();
+
+    /**
+     * Likes drained by the running flush that are not yet part of storedLikes
+     */
+    private final ConcurrentHashMap<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Last known stored like count of the comments being liked; dropped with
+     * the comment's adder once it goes idle
+     */
+    private final ConcurrentHashMap<String, Integer> storedLikes = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private CommentStatsRepository commentStatsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CommentUpdateBuffer commentUpdateBuffer;
+
+    private Counter flushedLikes;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        flushedLikes = Counter.builder("comments.likes.flushed")
+                .description("Comment likes written to MongoDB by the like buffer")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("comments.likes.flush")
+                .description("Time spent flushing buffered comment likes")
+                .register(meterRegistry);
+        Gauge.builder("comments.likes.buffered", this, CommentLikeBuffer::totalPending)
+                .description("Comment likes recorded but not yet written to MongoDB")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records one like of a comment
+     */
+    public void record(String commentId) {
+        pending.computeIfAbsent(commentId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Likes recorded for a comment that are not yet written to MongoDB (or
+     * written, but not yet read back by the running flush)
+     */
+    public long pending(String commentId) {
+        LongAdder adder = pending.get(commentId);
+        return (adder != null ? adder.sum() : 0) + inFlight.getOrDefault(commentId, 0);
+    }
+
+    /**
+     * Likes recorded for all comments that are not yet written to MongoDB
+     */
+    public long totalPending() {
+        long total = 0;
+        for (LongAdder adder : pending.values()) {
+            total += adder.sum();
+        }
+        for (int delta : inFlight.values()) {
+            total += delta;
+        }
+        return total;
+    }
+
+    /**
+     * Last known stored like count of a comment, or null if the buffer doesn't know it
+     */
+    public Integer storedLikes(String commentId) {
+        return storedLikes.get(commentId);
+    }
+
+    /**
+     * Remembers the stored like count read for a comment the buffer doesn't know yet
+     */
+    public void rememberStoredLikes(String commentId, int likes) {
+        storedLikes.putIfAbsent(commentId, likes);
+    }
+
+    /**
+     * Current like count of a comment: its stored count plus the likes pending in this buffer
+     *
+     * @param fallbackStored stored count to use if the buffer has forgotten the comment meanwhile
+     */
+    public int likes(String commentId, int fallbackStored) {
+        return storedLikes.getOrDefault(commentId, fallbackStored) + (int) pending(commentId);
+    }
+
+    /**
+     * Writes all accumulated deltas to MongoDB; failed deltas are retried on the next interval
+     */
+    @Scheduled(fixedDelayString = "${comments.likes.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<String, Integer> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> commentRepository.incrementLikes(deltas));
+        } catch (Exception e) {
+            logger.error("Failed to flush {} buffered comment likes, will retry", deltas.size(), e);
+            deltas.forEach((id, delta) -> {
+                pending.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+                inFlight.remove(id);
+            });
+            return;
+        }
+
+        int likes = deltas.values().stream().mapToInt(Integer::intValue).sum();
+        flushedLikes.increment(likes);
+        logger.debug("Flushed {} likes across {} comments", likes, deltas.size());
+
+        List<Comment> liked = readBack(deltas);
+        if (liked != null) {
+            updateStatsAndPush(deltas, liked);
+        }
+    }
+
+    /**
+     * Flushes pending likes before the application context closes
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing {} buffered comment likes before shutdown", totalPending());
+        flush();
+    }
+
+    /**
+     * Reads back the flushed comments with a single $in query and moves their
+     * new counts from inFlight into storedLikes
+     *
+     * @return the flushed comments (contentId, contentType and likes), or null if the read failed
+     */
+    private List<Comment> readBack(Map<String, Integer> deltas) {
+        try {
+            List<Comment> liked = commentRepository.findContentRefs(deltas.keySet());
+            Map<String, Integer> remaining = new HashMap<>(deltas);
+            for (Comment comment : liked) {
+                storedLikes.put(comment.getId(), comment.getLikes());
+                inFlight.remove(comment.getId());
+                remaining.remove(comment.getId());
+            }
+            // Deleted meanwhile: the $inc matched nothing
+            remaining.keySet().forEach(id -> {
+                storedLikes.remove(id);
+                inFlight.remove(id);
+            });
+            return liked;
+        } catch (Exception e) {
+            logger.error("Failed to read back {} flushed comments; rebuild comment stats to repair",
+                    deltas.size(), e);
+            // The write succeeded, so the flushed likes are stored now
+            deltas.forEach((id, delta) -> {
+                storedLikes.computeIfPresent(id, (key, stored) -> stored + delta);
+                inFlight.remove(id);
+            });
+            return null;
+        }
+    }
+
+    /**
+     * Adds the flushed likes to the stats of the liked comments' content and
+     * pushes the new counts
+     */
+    private void updateStatsAndPush(Map<String, Integer> deltas, List<Comment> liked) {
+        try {
+            commentStatsRepository.applyDeltas(liked.stream()
+                    .map(comment -> CommentStatsDelta.likes(comment, deltas.get(comment.getId())))
+                    .toList());
+        } catch (Exception e) {
+            logger.error("Failed to update comment stats for {} flushed comments; rebuild them to repair",
+                    deltas.size(), e);
+        }
+
+        // A failed push must not cost the stats update above, so it gets its own try
+        try {
+            liked.forEach(comment ->
+                    commentUpdateBuffer.likesChanged(comment.getContentId(), comment.getId(), comment.getLikes()));
+        } catch (Exception e) {
+            logger.warn("Failed to push new like counts of {} flushed comments", liked.size(), e);
+        }
+    }
+
+    /**
+     * Collects the deltas to write and marks them in flight
+     *
+     * A delta is added to inFlight before it is taken out of its adder, so
+     * {@link #pending} keeps counting it while the flush runs.
+     */
+    private Map<String, Integer> drain() {
+        Map<String, Integer> deltas = new HashMap<>();
+
+        retired.forEach((id, adder) -> addDelta(deltas, id, adder));
+        // Retired adders that stayed idle are dropped now, and the stored count with them
+        retired.keySet().stream()
+                .filter(id -> !deltas.containsKey(id) && !pending.containsKey(id))
+                .forEach(storedLikes::remove);
+
+        Map<String, LongAdder> idle = new HashMap<>();
+        pending.forEach((id, adder) -> {
+            if (!addDelta(deltas, id, adder) && pending.remove(id, adder)) {
+                idle.put(id, adder);
+            }
+        });
+        retired = idle;
+
+        return deltas;
+    }
+
+    /**
+     * Moves the current sum of an adder into deltas and inFlight
+     *
+     * @return true if the adder held any likes
+     */
+    private boolean addDelta(Map<String, Integer> deltas, String id, LongAdder adder) {
+        long delta = adder.sum();
+        if (delta <= 0) {
+            return false;
+        }
+        int likes = Math.toIntExact(delta);
+        inFlight.merge(id, likes, Integer::sum);
+        adder.add(-delta);
+        deltas.merge(id, likes, Integer::sum);
+        return true;
+    }
+}
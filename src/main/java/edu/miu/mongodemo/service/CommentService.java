@@ -1,19 +1,92 @@
 package edu.miu.mongodemo.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.CommentBatchResult;
+import edu.miu.mongodemo.model.CommentCatchUp;
+import edu.miu.mongodemo.model.CommentStats;
+import edu.miu.mongodemo.model.ContentType;
+import edu.miu.mongodemo.model.CursorPage;
+import edu.miu.mongodemo.repository.CommentCursor;
 import edu.miu.mongodemo.repository.CommentRepository;
+import edu.miu.mongodemo.repository.CommentSort;
+import edu.miu.mongodemo.repository.CommentStatsDelta;
+import edu.miu.mongodemo.repository.CommentStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Comment Service
+ *
+ * Every write keeps the per-content {@link CommentStats} in step with one
+ * upserting $inc, so counts next to articles and news never require reading
+ * their comments. Writes that bypass this service (or a failed stats update)
+ * can be repaired with {@link #rebuildCommentStats()}.
+ */
 @Service
 public class CommentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentService.class);
+
+    private static final List<String> LIKE_COUNTER_FIELDS = List.of("likes", "contentId", "contentType");
     
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private CommentStatsRepository commentStatsRepository;
+
+    @Autowired
+    private CommentLikeBuffer commentLikeBuffer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CommentUpdateBuffer commentUpdateBuffer;
+
+    /**
+     * When enabled, likes are accumulated in {@link CommentLikeBuffer} and written
+     * in periodic bulk flushes instead of one $inc per like
+     */
+    @Value("${comments.likes.write-behind.enabled:false}")
+    private boolean writeBehindLikes;
+
+    /**
+     * Number of comments sent to MongoDB per unordered insertMany in bulk imports
+     */
+    @Value("${comments.batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    @Value("${comments.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${comments.page.max-size:100}")
+    private int maxPageSize;
+
     public List<Comment> getAllComments() {
         return commentRepository.findAll();
     }
@@ -23,23 +96,150 @@ public class CommentService {
     }
 
     public Comment createComment(Comment comment) {
-        return commentRepository.save(comment);
+        if (comment.getId() != null) {
+            // Saving with a client-supplied id may overwrite an existing comment
+            return updateComment(comment.getId(), comment);
+        }
+        comment.resetModeration();
+        Comment saved = commentRepository.save(comment);
+        updateStats(List.of(CommentStatsDelta.of(saved, 1)));
+        commentUpdateBuffer.commentCreated(saved);
+        return saved;
     }
 
     public Comment updateComment(String id, Comment comment) {
         comment.setId(id);
-        return commentRepository.save(comment);
+        Comment previous = commentRepository.replace(comment);
+        List<CommentStatsDelta> deltas = new ArrayList<>();
+        if (previous != null) {
+            // replace() kept the stored moderation state, so report (and count) that one
+            comment.copyModeration(previous);
+            deltas.add(CommentStatsDelta.of(previous, -1));
+        } else {
+            comment.resetModeration();
+        }
+        deltas.add(CommentStatsDelta.of(comment, 1));
+        updateStats(deltas);
+        return comment;
     }
 
     public void deleteComment(String id) {
-        commentRepository.deleteById(id);
+        Comment deleted = commentRepository.remove(id);
+        if (deleted != null) {
+            updateStats(List.of(CommentStatsDelta.of(deleted, -1)));
+            commentUpdateBuffer.commentDeleted(deleted);
+        }
+    }
+
+    /**
+     * Bulk import of comments from a JSON array or an NDJSON stream
+     *
+     * The body is parsed incrementally and written in chunks of
+     * comments.batch.chunk-size with unordered insertMany, so memory use is
+     * bounded by the chunk size rather than the size of the import. Each chunk
+     * also updates the comment stats with a single bulk write.
+     *
+     * One result per submitted comment is passed to the consumer, in submission
+     * order, as soon as its chunk has been written. Invalid items (malformed JSON
+     * on an NDJSON line, missing fields, duplicate ids) fail individually; a JSON
+     * array that is not well-formed ends the import at the broken item.
+     *
+     * @param body request body
+     * @param ndjson true for one JSON comment per line, false for a JSON array
+     * @param results receives the outcome of every item
+     */
+    public void importComments(InputStream body, boolean ndjson, Consumer<CommentBatchResult> results) throws IOException {
+        List<BatchItem> chunk = new ArrayList<>(batchChunkSize);
+        int index = 0;
+
+        if (ndjson) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(BatchItem.of(index, objectMapper.readValue(line, Comment.class)));
+                } catch (JsonProcessingException e) {
+                    chunk.add(BatchItem.failed(index, "Malformed comment: " + e.getOriginalMessage()));
+                }
+                index++;
+                if (chunk.size() == batchChunkSize) {
+                    insertChunk(chunk, results);
+                }
+            }
+        } else {
+            try (MappingIterator<Comment> comments = objectMapper.readerFor(Comment.class).readValues(body)) {
+                while (comments.hasNextValue()) {
+                    try {
+                        chunk.add(BatchItem.of(index, comments.nextValue()));
+                    } catch (JsonProcessingException e) {
+                        chunk.add(BatchItem.failed(index, "Malformed comment: " + e.getOriginalMessage()));
+                        if (!(e instanceof JsonMappingException)) {
+                            // Syntax error: the rest of the array can't be located reliably
+                            index++;
+                            break;
+                        }
+                    }
+                    index++;
+                    if (chunk.size() == batchChunkSize) {
+                        insertChunk(chunk, results);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                chunk.add(BatchItem.failed(index, "Malformed request body: " + e.getOriginalMessage()));
+            }
+        }
+        insertChunk(chunk, results);
+    }
+
+    /**
+     * Inserts the valid comments of a chunk, reports every item and clears the chunk
+     */
+    private void insertChunk(List<BatchItem> chunk, Consumer<CommentBatchResult> results) {
+        List<Comment> comments = chunk.stream()
+                .map(BatchItem::comment)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Integer, String> failures = commentRepository.insertUnordered(comments);
+
+        List<CommentStatsDelta> deltas = new ArrayList<>();
+        int position = 0;
+        for (BatchItem item : chunk) {
+            if (item.comment() == null) {
+                results.accept(CommentBatchResult.failed(item.index(), item.error()));
+                continue;
+            }
+            String failure = failures.get(position++);
+            if (failure != null) {
+                results.accept(CommentBatchResult.failed(item.index(), failure));
+            } else {
+                deltas.add(CommentStatsDelta.of(item.comment(), 1));
+                commentUpdateBuffer.commentCreated(item.comment());
+                results.accept(CommentBatchResult.created(item.index(), item.comment().getId()));
+            }
+        }
+        updateStats(deltas);
+        chunk.clear();
     }
 
-    public List<Comment> getCommentsByContentId(String contentId) {
-        return commentRepository.findByContentId(contentId);
+    /**
+     * Approves a comment
+     *
+     * @return the approved comment, or empty if it doesn't exist
+     */
+    public Optional<Comment> approveComment(String id) {
+        Comment approved = commentRepository.approve(id);
+        if (approved == null) {
+            // Either missing or already approved; neither changes the stats
+            return commentRepository.findById(id);
+        }
+        updateStats(List.of(new CommentStatsDelta(approved.getContentId(), approved.getContentType(), 0, 1, 0)));
+        return Optional.of(approved);
     }
 
-    public List<Comment> getCommentsByContentType(String contentType) {
+    public List<Comment> getCommentsByContentType(ContentType contentType) {
         return commentRepository.findByContentType(contentType);
     }
 
@@ -51,18 +251,212 @@ public class CommentService {
         return commentRepository.findByIsApproved(isApproved);
     }
 
-    public List<Comment> getCommentsByContent(String contentId, String contentType) {
+    public List<Comment> getCommentsByContent(String contentId, ContentType contentType) {
         return commentRepository.findByContentIdAndContentType(contentId, contentType);
     }
 
-    public Comment likeComment(String id) {
-        Optional<Comment> commentOpt = commentRepository.findById(id);
-        if (commentOpt.isPresent()) {
-            Comment comment = commentOpt.get();
-            comment.setLikes(comment.getLikes() + 1);
-            return commentRepository.save(comment);
+    /**
+     * Keyset-paginated comment thread of one article or news item
+     *
+     * Continues from the opaque cursor returned with the previous page, so each
+     * request reads at most one page of comments even on threads with tens of
+     * thousands of them. With {@link CommentSort#LIKES} a comment liked between two
+     * requests can move across the page boundary and be skipped or repeated.
+     *
+     * @param contentType ARTICLE or NEWS, or null to match either
+     * @param sort ordering of the thread (newest or most liked first)
+     * @param cursor cursor of the previous page, or null for the first page
+     * @param size requested page size; null uses the default, larger values are capped
+     */
+    public CursorPage<Comment> getCommentThread(String contentId, ContentType contentType, CommentSort sort,
+                                                String cursor, Integer size) {
+        int limit = resolvePageSize(size);
+        // Fetch one extra comment to know whether another page exists
+        List<Comment> items = commentRepository.findThread(
+                contentId, contentType, sort, CommentCursor.decode(cursor, sort), limit + 1);
+
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = CommentCursor.of(sort, items.get(limit - 1)).encode();
         }
-        return null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Comments created after the last one a client has seen, oldest first
+     *
+     * Lets a client that reconnects to the live comment topic catch up without
+     * reloading the thread. If the last seen comment no longer exists (e.g. was
+     * deleted) or belongs to another content item, the newest page of the thread
+     * is returned instead, flagged as a reset.
+     *
+     * @param lastSeenId id of the newest comment the client has
+     * @param size maximum number of comments; null uses the default page size, larger values are capped
+     */
+    public CommentCatchUp getCommentsSince(String contentId, String lastSeenId, Integer size) {
+        int limit = resolvePageSize(size);
+        Optional<Comment> lastSeen = commentRepository.findById(lastSeenId)
+                .filter(comment -> contentId.equals(comment.getContentId()));
+        if (lastSeen.isEmpty()) {
+            List<Comment> newest = commentRepository.findThread(contentId, null, CommentSort.CREATED_AT, null, limit + 1);
+            boolean older = newest.size() > limit;
+            List<Comment> items = new ArrayList<>(older ? newest.subList(0, limit) : newest);
+            Collections.reverse(items);
+            return new CommentCatchUp(items, older, true);
+        }
+
+        // Fetch one extra comment to know whether the reply is capped
+        List<Comment> items = commentRepository.findThreadAfter(lastSeen.get(), limit + 1);
+        boolean more = items.size() > limit;
+        return new CommentCatchUp(more ? items.subList(0, limit) : items, more, false);
     }
-}
 
+    /**
+     * The most liked comments of a content item, read straight from the likes index
+     *
+     * @param contentType ARTICLE or NEWS, or null to match either
+     * @param limit number of comments; null uses the default page size, larger values are capped
+     */
+    public List<Comment> getTopComments(String contentId, ContentType contentType, Integer limit) {
+        return commentRepository.findThread(contentId, contentType, CommentSort.LIKES, null, resolvePageSize(limit));
+    }
+
+    /**
+     * Likes a comment and returns it with the new count
+     *
+     * Without the like buffer this is a single server-side $inc (findAndModify
+     * returning the new document), so concurrent likes are never lost. With the
+     * buffer the like is only recorded in memory; the comment itself still has
+     * to be read to be returned, and carries the count kept by the buffer. Use
+     * {@link #likeCommentOnly(String)} to like without any read.
+     *
+     * @return the liked comment, or empty if it doesn't exist
+     */
+    public Optional<Comment> likeComment(String id) {
+        if (writeBehindLikes) {
+            Optional<Comment> comment = commentRepository.findById(id);
+            comment.ifPresent(c -> {
+                commentLikeBuffer.rememberStoredLikes(id, c.getLikes());
+                commentLikeBuffer.record(id);
+                c.setLikes(commentLikeBuffer.likes(id, c.getLikes()));
+            });
+            return comment;
+        }
+        Comment comment = commentRepository.incrementLikes(id, 1);
+        if (comment != null) {
+            updateStats(List.of(CommentStatsDelta.likes(comment, 1)));
+            commentUpdateBuffer.likesChanged(comment.getContentId(), id, comment.getLikes());
+        }
+        return Optional.ofNullable(comment);
+    }
+
+    /**
+     * Likes a comment and returns only the new count
+     *
+     * Cheaper variant of {@link #likeComment(String)}: only likes is read back.
+     * With the like buffer nothing is read once the buffer knows the comment's
+     * count; only the first like of a comment reads its stored count.
+     *
+     * @return the new like count, or empty if the comment doesn't exist
+     */
+    public Optional<Integer> likeCommentOnly(String id) {
+        if (writeBehindLikes) {
+            Integer stored = commentLikeBuffer.storedLikes(id);
+            if (stored == null) {
+                stored = commentRepository.findLikes(id);
+                if (stored == null) {
+                    return Optional.empty();
+                }
+                commentLikeBuffer.rememberStoredLikes(id, stored);
+            }
+            commentLikeBuffer.record(id);
+            return Optional.of(commentLikeBuffer.likes(id, stored));
+        }
+        Comment comment = commentRepository.incrementLikes(id, 1, LIKE_COUNTER_FIELDS);
+        if (comment == null) {
+            return Optional.empty();
+        }
+        updateStats(List.of(CommentStatsDelta.likes(comment, 1)));
+        commentUpdateBuffer.likesChanged(comment.getContentId(), id, comment.getLikes());
+        return Optional.of(comment.getLikes());
+    }
+
+    /**
+     * Comment stats of many content items with one $in query
+     *
+     * @param contentIds ids of articles or news items
+     * @param contentType ARTICLE or NEWS, or null to return stats of either type
+     * @return one entry per requested id and type that has stats; ids without
+     *         comments get all-zero stats when contentType is given
+     */
+    public List<CommentStats> getCommentStats(Collection<String> contentIds, ContentType contentType) {
+        Collection<String> ids = new LinkedHashSet<>(contentIds);
+        List<CommentStats> found = commentStatsRepository.findByContentIdIn(ids);
+        if (contentType == null) {
+            return found;
+        }
+
+        Map<String, CommentStats> byContentId = found.stream()
+                .filter(stats -> contentType.equals(stats.getContentType()))
+                .collect(Collectors.toMap(CommentStats::getContentId, Function.identity()));
+        return ids.stream()
+                .map(contentId -> byContentId.getOrDefault(contentId, CommentStats.empty(contentId, contentType)))
+                .toList();
+    }
+
+    /**
+     * Recomputes all comment stats from the comments collection
+     */
+    public void rebuildCommentStats() {
+        logger.info("Rebuilding comment stats from the comments collection");
+        commentStatsRepository.rebuild();
+    }
+
+    /**
+     * Applies stats deltas after a comment write
+     *
+     * The comment write has already succeeded at this point, so a failure is
+     * logged rather than reported to the caller.
+     */
+    private void updateStats(List<CommentStatsDelta> deltas) {
+        try {
+            commentStatsRepository.applyDeltas(deltas);
+        } catch (Exception e) {
+            logger.error("Failed to update comment stats {}; rebuild them to repair", deltas, e);
+        }
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + size);
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    /**
+     * One parsed item of a bulk import: either a valid comment or the reason it was rejected
+     */
+    private record BatchItem(int index, Comment comment, String error) {
+
+        static BatchItem of(int index, Comment comment) {
+            if (comment == null || isBlank(comment.getContentId()) || comment.getContentType() == null
+                    || isBlank(comment.getAuthor()) || isBlank(comment.getContent())) {
+                return failed(index, "contentId, contentType, author and content are required");
+            }
+            comment.resetModeration();
+            return new BatchItem(index, comment, null);
+        }
+
+        static BatchItem failed(int index, String error) {
+            return new BatchItem(index, null, error);
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+    }
+}
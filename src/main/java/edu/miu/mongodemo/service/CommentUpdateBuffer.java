@@ -0,0 +1,123 @@
+package edu.miu.mongodemo.service;
+
+import edu.miu.mongodemo.controller.WebSocketCommentController;
+import edu.miu.mongodemo.controller.WebSocketCommentController.CommentUpdateDTO;
+import edu.miu.mongodemo.model.Comment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batches comment changes into one STOMP frame per content item and interval
+ *
+ * A burst of new comments or likes on a busy item becomes a single message
+ * on /topic/content/{contentId}/comments instead of one per change; repeated
+ * likes of the same comment collapse into its latest count. Large bursts are
+ * split so no frame carries more than comments.push.max-comments-per-frame
+ * comments.
+ */
+@Component
+public class CommentUpdateBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentUpdateBuffer.class);
+
+    private final ConcurrentHashMap<String, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @Lazy because the WebSocket controller depends on CommentService, which depends on this buffer
+     */
+    @Autowired
+    @Lazy
+    private WebSocketCommentController webSocketController;
+
+    @Value("${comments.push.max-comments-per-frame:100}")
+    private int maxCommentsPerFrame;
+
+    public void commentCreated(Comment comment) {
+        // compute() is atomic per key, so a change is either in the batch being flushed or in the next one
+        pending.compute(comment.getContentId(), (id, update) -> orNew(update).created(comment));
+    }
+
+    public void likesChanged(String contentId, String commentId, int likes) {
+        pending.compute(contentId, (id, update) -> orNew(update).liked(commentId, likes));
+    }
+
+    public void commentDeleted(Comment comment) {
+        pending.compute(comment.getContentId(), (id, update) -> orNew(update).deleted(comment.getId()));
+    }
+
+    @Scheduled(fixedDelayString = "${comments.push.interval-ms:250}")
+    public void flush() {
+        for (String contentId : pending.keySet()) {
+            PendingUpdate update = pending.remove(contentId);
+            if (update == null) {
+                continue;
+            }
+            try {
+                send(contentId, update);
+            } catch (Exception e) {
+                logger.warn("Failed to push comment updates for content {}", contentId, e);
+            }
+        }
+    }
+
+    private void send(String contentId, PendingUpdate update) {
+        List<Comment> created = update.created;
+        int frames = Math.max(1, (created.size() + maxCommentsPerFrame - 1) / maxCommentsPerFrame);
+        for (int frame = 0; frame < frames; frame++) {
+            List<Comment> slice = created.subList(frame * maxCommentsPerFrame,
+                    Math.min(created.size(), (frame + 1) * maxCommentsPerFrame));
+
+            CommentUpdateDTO dto = new CommentUpdateDTO();
+            dto.setContentId(contentId);
+            dto.setCreated(slice);
+            dto.setLastCommentId(slice.isEmpty() ? null : slice.get(slice.size() - 1).getId());
+            // Likes and deletions ride along with the last frame
+            boolean last = frame == frames - 1;
+            dto.setLikes(last ? update.likes : Map.of());
+            dto.setDeleted(last ? update.deleted : List.of());
+            dto.setTimestamp(LocalDateTime.now());
+            webSocketController.broadcastCommentUpdate(dto);
+        }
+    }
+
+    private static PendingUpdate orNew(PendingUpdate update) {
+        return update != null ? update : new PendingUpdate();
+    }
+
+    /**
+     * Changes of one content item since the last flush; only touched inside ConcurrentHashMap.compute
+     */
+    private static class PendingUpdate {
+        private final List<Comment> created = new ArrayList<>();
+        private final Map<String, Integer> likes = new LinkedHashMap<>();
+        private final List<String> deleted = new ArrayList<>();
+
+        PendingUpdate created(Comment comment) {
+            created.add(comment);
+            return this;
+        }
+
+        PendingUpdate liked(String commentId, int count) {
+            // Concurrent likes can complete out of order; the highest count is the latest
+            likes.merge(commentId, count, Math::max);
+            return this;
+        }
+
+        PendingUpdate deleted(String commentId) {
+            deleted.add(commentId);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package edu.miu.mongodemo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.mongodemo.model.News;
+import edu.miu.mongodemo.model.NewsSummary;
+import edu.miu.mongodemo.repository.NewsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized front-page news feed
+ *
+ * The summaries of recently published news (news.feed.window) are kept in
+ * memory and ranked with {@link FrontPageRanking}. The ranked feed is
+ * published as an immutable snapshot holding both the items and their JSON
+ * bytes, so serving the feed is a volatile read with no query and no
+ * serialization.
+ *
+ * NewsService reports every create, update and delete, which updates the
+ * candidate set and re-ranks it in memory. A periodic reload from MongoDB
+ * picks up writes made by other instances and lets older stories sink as
+ * they age.
+ *
+ * Metrics:
+ * - news.feed.rebuild: duration of each re-rank and serialization
+ */
+@Component
+public class FrontPageFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(FrontPageFeed.class);
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${news.feed.size:30}")
+    private int size;
+
+    @Value("${news.feed.category-quota:5}")
+    private int categoryQuota;
+
+    @Value("${news.feed.half-life:PT12H}")
+    private Duration halfLife;
+
+    @Value("${news.feed.window:P7D}")
+    private Duration window;
+
+    @Value("${news.feed.max-candidates:2000}")
+    private int maxCandidates;
+
+    /**
+     * Candidate stories by id; guarded by this
+     */
+    private final Map<String, NewsSummary> candidates = new HashMap<>();
+
+    private volatile Snapshot snapshot;
+
+    private FrontPageRanking ranking;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    public void init() {
+        ranking = new FrontPageRanking(size, categoryQuota, halfLife);
+        rebuildTimer = Timer.builder("news.feed.rebuild")
+                .description("Time spent ranking and serializing the front-page news feed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The current feed, loading it first if this is the first request
+     *
+     * @throws FeedUnavailableException if the feed was never loaded and loading it now fails
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+            if (current == null) {
+                throw new FeedUnavailableException();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reloads the candidate stories from MongoDB and re-ranks them
+     */
+    @Scheduled(fixedDelayString = "${news.feed.reload-interval-ms:60000}")
+    public synchronized void reload() {
+        List<NewsSummary> loaded;
+        try {
+            loaded = newsRepository.findSummariesPublishedSince(LocalDateTime.now().minus(window), maxCandidates);
+        } catch (Exception e) {
+            logger.error("Failed to reload the front-page feed, keeping the previous one", e);
+            return;
+        }
+        candidates.clear();
+        loaded.forEach(news -> candidates.put(news.getId(), news));
+        rebuild();
+    }
+
+    /**
+     * Updates the feed after a story was created or updated
+     */
+    public synchronized void newsSaved(News news) {
+        if (snapshot == null) {
+            // Not loaded yet; the first load reads this story anyway
+            return;
+        }
+        if (news.getPublishedDate() != null && news.getPublishedDate().isAfter(LocalDateTime.now().minus(window))) {
+            candidates.put(news.getId(), NewsSummary.of(news));
+        } else {
+            candidates.remove(news.getId());
+        }
+        rebuild();
+    }
+
+    /**
+     * Updates the feed after a story was deleted
+     */
+    public synchronized void newsDeleted(String id) {
+        if (snapshot != null && candidates.remove(id) != null) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        rebuildTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<NewsSummary> items = List.copyOf(ranking.rank(candidates.values(), now));
+            try {
+                snapshot = new Snapshot(items, objectMapper.writeValueAsBytes(items), now);
+            } catch (JsonProcessingException e) {
+                logger.error("Failed to serialize the front-page feed, keeping the previous one", e);
+            }
+        });
+    }
+
+    /**
+     * One ranked version of the feed
+     *
+     * @param items stories in feed order
+     * @param json items serialized as a JSON array; never modify
+     * @param builtAt when the feed was ranked
+     */
+    public record Snapshot(List<NewsSummary> items, byte[] json, LocalDateTime builtAt) {
+    }
+
+    /**
+     * Thrown when there is no feed to serve because it could not be loaded yet
+     */
+    public static class FeedUnavailableException extends RuntimeException {
+
+        public FeedUnavailableException() {
+            super("Front-page feed is not available yet");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.miu.mongodemo.service;
+
+import edu.miu.mongodemo.model.NewsSummary;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranking rules of the front-page news feed
+ *
+ * A story scores its priority (1-10, 5 when unset) halved for every half-life
+ * that has passed since it was published, so a fresh priority 5 story outranks
+ * a priority 10 story that is more than one half-life old. Stories are taken
+ * in score order, skipping any whose category already has categoryQuota
+ * stories in the feed. Unpublished (future) and expired stories are left out.
+ *
+ * @param size maximum number of stories in the feed
+ * @param categoryQuota maximum number of stories per category
+ * @param halfLife age at which a story's score has halved
+ */
+public record FrontPageRanking(int size, int categoryQuota, Duration halfLife) {
+
+    private static final int DEFAULT_PRIORITY = 5;
+
+    public List<NewsSummary> rank(Collection<NewsSummary> candidates, LocalDateTime now) {
+        Map<NewsSummary, Double> scores = new HashMap<>();
+        for (NewsSummary news : candidates) {
+            if (isLive(news, now)) {
+                scores.put(news, score(news, now));
+            }
+        }
+
+        List<NewsSummary> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort(Comparator.<NewsSummary>comparingDouble(scores::get).reversed()
+                .thenComparing(NewsSummary::getPublishedDate, Comparator.reverseOrder())
+                .thenComparing(NewsSummary::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        List<NewsSummary> feed = new ArrayList<>(Math.min(size, ranked.size()));
+        Map<String, Integer> perCategory = new HashMap<>();
+        for (NewsSummary news : ranked) {
+            if (feed.size() == size) {
+                break;
+            }
+            String category = news.getCategory() != null ? news.getCategory() : "";
+            if (perCategory.merge(category, 1, Integer::sum) <= categoryQuota) {
+                feed.add(news);
+            }
+        }
+        return feed;
+    }
+
+    public double score(NewsSummary news, LocalDateTime now) {
+        int priority = news.getPriority() != null ? news.getPriority() : DEFAULT_PRIORITY;
+        double ageSeconds = Math.max(0, Duration.between(news.getPublishedDate(), now).toSeconds());
+        return priority * Math.pow(0.5, ageSeconds / halfLife.toSeconds());
+    }
+
+    private static boolean isLive(NewsSummary news, LocalDateTime now) {
+        return news.getPublishedDate() != null
+                && !news.getPublishedDate().isAfter(now)
+                && (news.getExpiryDate() == null || news.getExpiryDate().isAfter(now));
+    }
+}
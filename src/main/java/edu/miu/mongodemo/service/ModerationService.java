@@ -0,0 +1,188 @@
+package edu.miu.mongodemo.service;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ModerationDecision;
+import edu.miu.mongodemo.repository.CommentRepository;
+import edu.miu.mongodemo.repository.CommentStatsDelta;
+import edu.miu.mongodemo.repository.CommentStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Comment moderation queue
+ *
+ * Moderator workers (on any node) repeatedly claim a batch of the oldest
+ * pending comments, decide them and submit the verdicts in bulk. A claim is a
+ * lease: until it expires no other worker receives those comments, and if the
+ * worker dies they become claimable again afterwards.
+ *
+ * Metrics:
+ * - comments.moderation.pending: comments waiting for moderation
+ * - comments.moderation.claimed: pending comments currently leased to a worker
+ * - comments.moderation.claims: comments handed out to workers
+ * - comments.moderation.decisions: comments decided, tagged decision=approved|rejected
+ */
+@Service
+public class ModerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModerationService.class);
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private CommentStatsRepository commentStatsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${comments.moderation.batch-size:50}")
+    private int defaultBatchSize;
+
+    @Value("${comments.moderation.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${comments.moderation.lease:PT5M}")
+    private Duration defaultLease;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong claimed = new AtomicLong();
+
+    private Counter claims;
+    private Counter approvals;
+    private Counter rejections;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("comments.moderation.pending", pending, AtomicLong::get)
+                .description("Comments waiting for moderation")
+                .register(meterRegistry);
+        Gauge.builder("comments.moderation.claimed", claimed, AtomicLong::get)
+                .description("Pending comments currently leased to a moderator worker")
+                .register(meterRegistry);
+        claims = Counter.builder("comments.moderation.claims")
+                .description("Comments handed out to moderator workers")
+                .register(meterRegistry);
+        approvals = Counter.builder("comments.moderation.decisions")
+                .tag("decision", "approved")
+                .description("Comments decided by moderators")
+                .register(meterRegistry);
+        rejections = Counter.builder("comments.moderation.decisions")
+                .tag("decision", "rejected")
+                .description("Comments decided by moderators")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Leases the next batch of pending comments to a worker
+     *
+     * @param worker id of the worker; decisions are only accepted from the same id
+     * @param size batch size; null uses comments.moderation.batch-size, larger values are capped
+     * @param lease how long the batch stays reserved; null uses comments.moderation.lease
+     * @return the claimed comments, oldest first; empty when the queue is drained
+     */
+    public List<Comment> claim(String worker, Integer size, Duration lease) {
+        if (worker == null || worker.isBlank()) {
+            throw new IllegalArgumentException("worker is required");
+        }
+        if (size != null && size < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + size);
+        }
+        if (lease != null && (lease.isNegative() || lease.isZero())) {
+            throw new IllegalArgumentException("Lease must be positive: " + lease);
+        }
+        int limit = size != null ? Math.min(size, maxBatchSize) : defaultBatchSize;
+        List<Comment> batch = commentRepository.claimPending(worker, limit, lease != null ? lease : defaultLease);
+        claims.increment(batch.size());
+        logger.debug("Worker {} claimed {} comments for moderation", worker, batch.size());
+        return batch;
+    }
+
+    /**
+     * Applies a worker's verdicts as one bulk approve and one bulk reject
+     *
+     * Only comments still leased to the worker are changed; ids whose lease
+     * expired and was taken over by another worker are skipped.
+     *
+     * @return number of comments approved and rejected
+     */
+    public Map<String, Long> decide(ModerationDecision decision) {
+        if (decision.worker() == null || decision.worker().isBlank()) {
+            throw new IllegalArgumentException("worker is required");
+        }
+        Map<String, Long> result = new HashMap<>();
+        result.put("approved", 0L);
+        result.put("rejected", 0L);
+
+        List<String> approve = decision.approve() != null ? decision.approve() : List.of();
+        if (!approve.isEmpty()) {
+            // The stats follow the comments actually approved, which can be fewer
+            // than requested when a lease expired and was taken over meanwhile
+            List<Comment> approved = commentRepository.approveClaimed(approve, decision.worker());
+            if (!approved.isEmpty()) {
+                updateStats(approved);
+            }
+            approvals.increment(approved.size());
+            result.put("approved", (long) approved.size());
+        }
+
+        List<String> reject = decision.reject() != null ? decision.reject() : List.of();
+        if (!reject.isEmpty()) {
+            long rejected = commentRepository.decide(reject, decision.worker(), false);
+            rejections.increment(rejected);
+            result.put("rejected", rejected);
+        }
+        return result;
+    }
+
+    /**
+     * Current queue depth
+     */
+    public Map<String, Long> queueStatus() {
+        Map<String, Long> status = new HashMap<>();
+        status.put("pending", pending.get());
+        status.put("claimed", claimed.get());
+        return status;
+    }
+
+    /**
+     * Refreshes the queue depth gauges with two indexed counts
+     *
+     * Done on a schedule rather than on every metrics scrape, so a slow or
+     * unavailable MongoDB never stalls the scrape.
+     */
+    @Scheduled(fixedDelayString = "${comments.moderation.metrics-interval-ms:15000}")
+    public void refreshQueueDepth() {
+        try {
+            pending.set(commentRepository.countPending());
+            claimed.set(commentRepository.countClaimed());
+        } catch (Exception e) {
+            logger.warn("Failed to refresh moderation queue depth", e);
+        }
+    }
+
+    private void updateStats(List<Comment> approved) {
+        try {
+            commentStatsRepository.applyDeltas(approved.stream()
+                    .map(comment -> new CommentStatsDelta(comment.getContentId(), comment.getContentType(), 0, 1, 0))
+                    .toList());
+        } catch (Exception e) {
+            logger.error("Failed to update comment stats for {} approved comments; rebuild them to repair",
+                    approved.size(), e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package edu.miu.mongodemo.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import edu.miu.mongodemo.model.News;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Moves expired news to a cold archive collection
+ *
+ * Expired stories are deleted by the TTL index on News.expiryDate one day after
+ * they expire. When archiving is enabled (news.expiry.archive.enabled), this job
+ * runs within that grace period and, in batches of news.expiry.archive.batch-size:
+ * 1. reads expired stories off the TTL index, oldest expiry first,
+ * 2. upserts them into the archive collection with one unordered bulkWrite,
+ * 3. deletes them from news, re-checking expiryDate so a story whose expiry was
+ *    extended in the meantime stays.
+ *
+ * Upserting by _id makes a batch that failed between steps 2 and 3 safe to
+ * repeat. Documents are copied as stored, with an added archivedAt.
+ *
+ * Metrics:
+ * - news.archived: stories moved to the archive collection
+ */
+@Component
+public class NewsArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsArchiver.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${news.expiry.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${news.expiry.archive.collection:news_archive}")
+    private String archiveCollection;
+
+    @Value("${news.expiry.archive.batch-size:500}")
+    private int batchSize;
+
+    private Counter archived;
+
+    @PostConstruct
+    public void registerMetrics() {
+        archived = Counter.builder("news.archived")
+                .description("Expired news moved to the archive collection")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${news.expiry.archive.interval-ms:300000}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveExpired();
+        } catch (Exception e) {
+            logger.error("Failed to archive expired news, will retry", e);
+        }
+    }
+
+    /**
+     * Archives all news that has expired by now
+     *
+     * @return number of stories moved to the archive collection
+     */
+    public synchronized long archiveExpired() {
+        MongoCollection<Document> news = mongoTemplate.getCollection(mongoTemplate.getCollectionName(News.class));
+        MongoCollection<Document> archive = mongoTemplate.getCollection(archiveCollection);
+        Date now = new Date();
+
+        long moved = 0;
+        while (true) {
+            List<Document> expired = news.find(Filters.lte("expiryDate", now))
+                    .sort(Sorts.ascending("expiryDate"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            if (expired.isEmpty()) {
+                break;
+            }
+
+            List<ReplaceOneModel<Document>> copies = new ArrayList<>(expired.size());
+            List<Object> ids = new ArrayList<>(expired.size());
+            for (Document story : expired) {
+                ids.add(story.get("_id"));
+                copies.add(new ReplaceOneModel<>(Filters.eq("_id", story.get("_id")),
+                        story.append("archivedAt", now), new ReplaceOptions().upsert(true)));
+            }
+            archive.bulkWrite(copies, new BulkWriteOptions().ordered(false));
+            long deleted = news.deleteMany(Filters.and(Filters.in("_id", ids), Filters.lte("expiryDate", now)))
+                    .getDeletedCount();
+
+            moved += deleted;
+            archived.increment(deleted);
+            if (expired.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (moved > 0) {
+            logger.info("Archived {} expired news stories to '{}'", moved, archiveCollection);
+        }
+        return moved;
+    }
+}
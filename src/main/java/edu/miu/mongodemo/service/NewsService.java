@@ -1,59 +1,244 @@
 package edu.miu.mongodemo.service;
 
+import edu.miu.mongodemo.model.CursorPage;
+import edu.miu.mongodemo.model.DocumentVersion;
 import edu.miu.mongodemo.model.News;
+import edu.miu.mongodemo.model.NewsFacets;
+import edu.miu.mongodemo.model.NewsHistogramBucket;
+import edu.miu.mongodemo.model.NewsSummary;
+import edu.miu.mongodemo.repository.HistogramInterval;
 import edu.miu.mongodemo.repository.NewsRepository;
+import edu.miu.mongodemo.repository.OffsetCursor;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class NewsService {
+
+    public static final String NEWS_FACETS_CACHE = "newsFacets";
     
     @Autowired
     private NewsRepository newsRepository;
 
+    @Autowired
+    private FrontPageFeed frontPageFeed;
+
+    @Value("${news.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${news.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${news.stream.batch-size:500}")
+    private int streamBatchSize;
+
+    @Value("${news.related.max-depth:3}")
+    private int maxRelatedDepth;
+
+    @Value("${news.facets.max-values:50}")
+    private int maxFacetValues;
+
     public List<News> getAllNews() {
-        return newsRepository.findAll();
+        return newsRepository.findLive(LocalDateTime.now());
     }
 
+    /**
+     * @return the story, or empty if it doesn't exist or has expired
+     */
     public Optional<News> getNewsById(String id) {
-        return newsRepository.findById(id);
+        LocalDateTime now = LocalDateTime.now();
+        return newsRepository.findById(id)
+                .filter(news -> news.getExpiryDate() == null || news.getExpiryDate().isAfter(now));
     }
 
+    /**
+     * Version and last modification time of a live story, read without its
+     * content, for conditional GETs
+     *
+     * @return the version fields, or empty if the story doesn't exist or has expired
+     */
+    public Optional<DocumentVersion> getNewsVersion(String id) {
+        return Optional.ofNullable(newsRepository.findVersion(id, LocalDateTime.now()));
+    }
+
+    @CacheEvict(cacheNames = NEWS_FACETS_CACHE, allEntries = true)
     public News createNews(News news) {
-        return newsRepository.save(news);
+        checkRelatedIds(news);
+        news.setVersion(null);
+        news.setLastModifiedDate(LocalDateTime.now());
+        News saved = newsRepository.save(news);
+        frontPageFeed.newsSaved(saved);
+        return saved;
     }
 
+    /**
+     * Replaces a story
+     *
+     * A body carrying a version only replaces that version of the story
+     * (OptimisticLockingFailureException otherwise); without one, whatever
+     * version is stored is replaced in one unconditioned write.
+     */
+    @CacheEvict(cacheNames = NEWS_FACETS_CACHE, allEntries = true)
     public News updateNews(String id, News news) {
         news.setId(id);
-        return newsRepository.save(news);
+        checkRelatedIds(news);
+        news.setLastModifiedDate(LocalDateTime.now());
+        News saved = news.getVersion() == null
+                ? newsRepository.replaceCurrentVersion(news)
+                : newsRepository.save(news);
+        frontPageFeed.newsSaved(saved);
+        return saved;
     }
 
+    @CacheEvict(cacheNames = NEWS_FACETS_CACHE, allEntries = true)
     public void deleteNews(String id) {
         newsRepository.deleteById(id);
+        frontPageFeed.newsDeleted(id);
+    }
+
+    /**
+     * The ranked front-page feed, see {@link FrontPageFeed}
+     */
+    public FrontPageFeed.Snapshot getFrontPage() {
+        return frontPageFeed.current();
+    }
+
+    /**
+     * Live news counts per category, reporter and priority band
+     *
+     * One $facet aggregation, cached until the next news write or for
+     * news.facets.cache-ttl, whichever comes first.
+     */
+    @Cacheable(NEWS_FACETS_CACHE)
+    public NewsFacets getNewsFacets() {
+        return newsRepository.countFacets(maxFacetValues);
     }
 
     public List<News> getNewsByCategory(String category) {
-        return newsRepository.findByCategory(category);
+        return newsRepository.findLiveByCategory(LocalDateTime.now(), category);
     }
 
     public List<News> getNewsByReporter(String reporter) {
-        return newsRepository.findByReporter(reporter);
+        return newsRepository.findLiveByReporter(LocalDateTime.now(), reporter);
+    }
+
+    /**
+     * Live news published in [start, end), oldest first
+     *
+     * Read from a server-side cursor news.stream.batch-size documents at a time
+     * as the stream is consumed, so a range of any width is never held in memory.
+     * The stream must be closed.
+     *
+     * @param type News for full documents, or NewsSummary to leave out fullText
+     */
+    public <T> Stream<T> streamNewsByDateRange(LocalDateTime start, LocalDateTime end, Class<T> type) {
+        checkRange(start, end);
+        return newsRepository.streamPublishedBetween(start, end, streamBatchSize, type);
+    }
+
+    /**
+     * Number of live news published in [start, end) per hour or day, computed by MongoDB
+     */
+    public List<NewsHistogramBucket> getNewsHistogram(LocalDateTime start, LocalDateTime end,
+                                                      HistogramInterval interval) {
+        checkRange(start, end);
+        return newsRepository.countPublishedBetween(start, end, interval);
+    }
+
+    /**
+     * Related stories of one story, see {@link #getRelatedNews(Collection, Integer)}
+     *
+     * @return the related summaries, or empty if the story doesn't exist or has expired
+     */
+    public Optional<List<NewsSummary>> getRelatedNews(String id, Integer depth) {
+        return Optional.ofNullable(getRelatedNews(List.of(id), depth).get(id));
+    }
+
+    /**
+     * Related stories of several stories, expanded in one round trip
+     *
+     * @param depth levels of relatedNewsIds to follow; null for 1 (directly related only)
+     * @return related summaries (without fullText) per live story id, in the order of ids
+     */
+    public Map<String, List<NewsSummary>> getRelatedNews(Collection<String> ids, Integer depth) {
+        int levels = depth != null ? depth : 1;
+        if (levels < 1 || levels > maxRelatedDepth) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + maxRelatedDepth + ": " + levels);
+        }
+        return newsRepository.findRelated(new LinkedHashSet<>(ids), levels);
     }
 
-    public List<News> getNewsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return newsRepository.findByPublishedDateBetween(start, end);
+    /**
+     * Related ids are stored as ObjectIds (see News.relatedNewsIds)
+     */
+    private static void checkRelatedIds(News news) {
+        if (news.getRelatedNewsIds() == null) {
+            return;
+        }
+        for (String id : news.getRelatedNewsIds()) {
+            if (!ObjectId.isValid(id)) {
+                throw new IllegalArgumentException("Related news id is not a valid ObjectId: " + id);
+            }
+        }
+    }
+
+    private static void checkRange(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("start must be before end: " + start + " / " + end);
+        }
     }
 
     public List<News> getHighPriorityNews(Integer priority) {
-        return newsRepository.findByPriorityGreaterThanEqual(priority);
+        return newsRepository.findLiveByPriorityGreaterThanEqual(LocalDateTime.now(), priority);
     }
 
     public List<News> searchNewsByHeadline(String headline) {
-        return newsRepository.findByHeadlineContainingIgnoreCase(headline);
+        return newsRepository.findLiveByHeadlineMatching(LocalDateTime.now(), Pattern.quote(headline));
     }
-}
 
+    /**
+     * Relevance-ranked full-text search over headline, summary and fullText
+     *
+     * Backed by the news text index, so only matching documents are read.
+     *
+     * @param text search terms
+     * @param cursor cursor of the previous page, or null for the first page
+     * @param size requested page size; null uses the default, larger values are capped
+     */
+    public CursorPage<News> searchNews(String text, String cursor, Integer size) {
+        int limit = resolvePageSize(size);
+        int offset = OffsetCursor.decode(cursor).offset();
+        // Fetch one extra document to know whether another page exists
+        List<News> items = newsRepository.searchText(text, offset, limit + 1);
+
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = new OffsetCursor(offset + limit).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + size);
+        }
+        return Math.min(size, maxPageSize);
+    }
+}
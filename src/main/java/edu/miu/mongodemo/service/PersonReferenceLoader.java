@@ -0,0 +1,83 @@
+package edu.miu.mongodemo.service;
+
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.Person;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched resolution of the Article.person DBRef
+ *
+ * Article.person is a lazy @DBRef, so loading articles leaves an unresolved
+ * proxy in place of each Person. This loader collects the referenced ids
+ * across a whole result and fetches them with a single $in query, so listing
+ * N articles costs two queries instead of N + 1.
+ *
+ * Articles leaving ArticleService always go through here: serializing an
+ * unresolved proxy would resolve it one query at a time.
+ */
+@Component
+public class PersonReferenceLoader {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public Article resolve(Article article) {
+        if (article != null) {
+            resolveAll(List.of(article));
+        }
+        return article;
+    }
+
+    /**
+     * Replaces every unresolved person proxy in the given articles with the
+     * loaded Person (or null if the referenced person no longer exists)
+     */
+    public <C extends Collection<Article>> C resolveAll(C articles) {
+        Set<Object> ids = new HashSet<>();
+        for (Article article : articles) {
+            Object id = unresolvedId(article);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return articles;
+        }
+
+        Map<String, Person> personsById = new HashMap<>();
+        for (Person person : mongoTemplate.find(Query.query(Criteria.where("id").in(ids)), Person.class)) {
+            personsById.put(person.getId(), person);
+        }
+
+        for (Article article : articles) {
+            Object id = unresolvedId(article);
+            if (id != null) {
+                article.setPerson(personsById.get(id.toString()));
+            }
+        }
+        return articles;
+    }
+
+    /**
+     * Id behind an unresolved lazy person reference, read from the DBRef
+     * without triggering the proxy's own lookup
+     */
+    private static Object unresolvedId(Article article) {
+        if (article != null && article.getPerson() instanceof LazyLoadingProxy proxy) {
+            return proxy.toDBRef().getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,133 @@
+package edu.miu.mongodemo.service;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.CommentStats;
+import edu.miu.mongodemo.model.ContentType;
+import edu.miu.mongodemo.repository.CommentSort;
+import edu.miu.mongodemo.repository.CommentStatsDelta;
+import edu.miu.mongodemo.repository.ReactiveCommentRepository;
+import edu.miu.mongodemo.repository.ReactiveCommentStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Non-blocking comment reads and writes
+ *
+ * Mirrors the corresponding {@link CommentService} operations on the reactive
+ * MongoDB driver, including the comment stats updates and the optional like
+ * buffer, so both paths can serve the same data side by side.
+ */
+@Service
+public class ReactiveCommentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCommentService.class);
+
+    private static final List<String> LIKE_COUNTER_FIELDS = List.of("likes", "contentId", "contentType");
+
+    @Autowired
+    private ReactiveCommentRepository reactiveCommentRepository;
+
+    @Autowired
+    private ReactiveCommentStatsRepository reactiveCommentStatsRepository;
+
+    @Autowired
+    private CommentLikeBuffer commentLikeBuffer;
+
+    @Autowired
+    private CommentUpdateBuffer commentUpdateBuffer;
+
+    @Value("${comments.likes.write-behind.enabled:false}")
+    private boolean writeBehindLikes;
+
+    public Mono<Comment> getCommentById(String id) {
+        return reactiveCommentRepository.findById(id);
+    }
+
+    /**
+     * Streams a whole comment thread in index order
+     *
+     * Documents are emitted as the driver receives them, with backpressure, so
+     * a thread of any length is never held in memory at once.
+     *
+     * @param contentType ARTICLE or NEWS, or null to match either
+     * @param limit maximum number of comments, or null for the whole thread
+     */
+    public Flux<Comment> streamThread(String contentId, ContentType contentType, CommentSort sort, Integer limit) {
+        if (limit != null && limit < 1) {
+            return Flux.error(new IllegalArgumentException("Limit must be positive: " + limit));
+        }
+        Flux<Comment> thread = reactiveCommentRepository.findByContentIdAndContentTypeIn(
+                contentId,
+                contentType != null ? List.of(contentType) : Comment.CONTENT_TYPES,
+                Sort.by(Sort.Order.desc(sort.property()), Sort.Order.desc("id")));
+        return limit != null ? thread.take(limit, true) : thread;
+    }
+
+    public Flux<CommentStats> getCommentStats(Collection<String> contentIds) {
+        return reactiveCommentStatsRepository.findByContentIdIn(contentIds);
+    }
+
+    /**
+     * Inserts a new, pending comment; a client-supplied id or moderation state is ignored
+     */
+    public Mono<Comment> createComment(Comment comment) {
+        comment.setId(null);
+        comment.resetModeration();
+        return reactiveCommentRepository.insert(comment)
+                .flatMap(saved -> updateStats(List.of(CommentStatsDelta.of(saved, 1))).thenReturn(saved))
+                .doOnNext(commentUpdateBuffer::commentCreated);
+    }
+
+    /**
+     * @return true if the comment existed
+     */
+    public Mono<Boolean> deleteComment(String id) {
+        return reactiveCommentRepository.remove(id)
+                .doOnNext(commentUpdateBuffer::commentDeleted)
+                .flatMap(deleted -> updateStats(List.of(CommentStatsDelta.of(deleted, -1))).thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Likes a comment and returns the new count; see {@link CommentService#likeCommentOnly(String)}
+     */
+    public Mono<Integer> likeComment(String id) {
+        if (writeBehindLikes) {
+            Integer known = commentLikeBuffer.storedLikes(id);
+            Mono<Integer> stored = known != null
+                    ? Mono.just(known)
+                    : reactiveCommentRepository.findById(id).map(comment -> {
+                        commentLikeBuffer.rememberStoredLikes(id, comment.getLikes());
+                        return comment.getLikes();
+                    });
+            return stored.map(likes -> {
+                commentLikeBuffer.record(id);
+                return commentLikeBuffer.likes(id, likes);
+            });
+        }
+        return reactiveCommentRepository.incrementLikes(id, 1, LIKE_COUNTER_FIELDS)
+                .doOnNext(comment -> commentUpdateBuffer.likesChanged(comment.getContentId(), id, comment.getLikes()))
+                .flatMap(comment -> updateStats(List.of(CommentStatsDelta.likes(comment, 1)))
+                        .thenReturn(comment.getLikes()));
+    }
+
+    /**
+     * The comment write has already succeeded, so a stats failure is only logged
+     */
+    private Mono<Void> updateStats(List<CommentStatsDelta> deltas) {
+        return reactiveCommentStatsRepository.applyDeltas(deltas)
+                .onErrorResume(e -> {
+                    logger.error("Failed to update comment stats {}; rebuild them to repair", deltas, e);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,328 @@
+package edu.miu.mongodemo.service;
+
+import edu.miu.mongodemo.controller.WebSocketArticleController;
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.repository.ArticleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for article view counts
+ *
+ * Views are accumulated in memory in one LongAdder per article (striped, so
+ * thousands of concurrent viewers of a hot article don't contend on a single
+ * counter). Every flush interval the accumulated deltas are written with one
+ * unordered bulkWrite of $inc updates, and one view count message per changed
+ * article is broadcast over WebSocket. Cached copies of the flushed articles
+ * get the new viewCount and version instead of being evicted, so hot
+ * articles stay cached across flushes.
+ *
+ * Like {@link CommentLikeBuffer}, the buffer keeps the stored count of the
+ * articles it is buffering ({@link #views}), refreshed from the counts read
+ * back after each flush, so recording a view needs no read. Drained deltas
+ * stay counted as pending until that read-back, so the count never dips while
+ * a flush is in progress.
+ *
+ * Pending views are flushed on graceful shutdown. If a flush fails, its deltas
+ * are put back into the buffer and retried on the next interval.
+ *
+ * Metrics:
+ * - articles.views.buffered: views recorded but not yet written to MongoDB
+ * - articles.views.flushed: views written to MongoDB
+ * - articles.views.flush: duration of each flush
+ */
+@Component
+public class ViewCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Adders removed from the map because they were idle at the last flush
+     *
+     * A viewer may have fetched the adder just before it was removed and
+     * increment it afterwards, so retired adders are drained once more on
+     * the next flush before they are dropped.
+     */
+    private Map<String, LongAdder> retired = new HashMap<>();
+
+    /**
+     * Views drained by the running flush that are not yet part of storedViews
+     */
+    private final ConcurrentHashMap<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Last known stored view count of the articles being viewed; dropped with
+     * the article's adder once it goes idle
+     */
+    private final ConcurrentHashMap<String, Integer> storedViews = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    /**
+     * @Lazy for the same reason as in ArticleService: the WebSocket controller
+     * depends on ArticleService, which depends on this buffer
+     */
+    @Autowired
+    @Lazy
+    private WebSocketArticleController webSocketController;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Counter flushedViews;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        flushedViews = Counter.builder("articles.views.flushed")
+                .description("Article views written to MongoDB by the write-behind buffer")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("articles.views.flush")
+                .description("Time spent flushing buffered article views")
+                .register(meterRegistry);
+        Gauge.builder("articles.views.buffered", this, ViewCountBuffer::totalPending)
+                .description("Article views recorded but not yet written to MongoDB")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records one view of an article
+     */
+    public void record(String articleId) {
+        pending.computeIfAbsent(articleId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Views recorded for an article that are not yet written to MongoDB (or
+     * written, but not yet read back by the running flush)
+     */
+    public long pending(String articleId) {
+        LongAdder adder = pending.get(articleId);
+        return (adder != null ? adder.sum() : 0) + inFlight.getOrDefault(articleId, 0);
+    }
+
+    /**
+     * Views recorded for all articles that are not yet written to MongoDB
+     */
+    public long totalPending() {
+        long total = 0;
+        for (LongAdder adder : pending.values()) {
+            total += adder.sum();
+        }
+        for (int delta : inFlight.values()) {
+            total += delta;
+        }
+        return total;
+    }
+
+    /**
+     * Last known stored view count of an article, or null if the buffer doesn't know it
+     */
+    public Integer storedViews(String articleId) {
+        return storedViews.get(articleId);
+    }
+
+    /**
+     * Remembers the stored view count read for an article the buffer doesn't know yet
+     *
+     * @param views stored count; null (an article stored without one) counts as 0
+     */
+    public void rememberStoredViews(String articleId, Integer views) {
+        storedViews.putIfAbsent(articleId, views != null ? views : 0);
+    }
+
+    /**
+     * Current view count of an article: its stored count plus the views pending in this buffer
+     *
+     * @param fallbackStored stored count to use if the buffer has forgotten the article meanwhile
+     */
+    public int views(String articleId, int fallbackStored) {
+        return storedViews.getOrDefault(articleId, fallbackStored) + (int) pending(articleId);
+    }
+
+    /**
+     * Writes all accumulated deltas to MongoDB and broadcasts the new counts
+     *
+     * Synchronized so the scheduled flush and the shutdown flush never drain
+     * the same deltas twice.
+     */
+    @Scheduled(fixedDelayString = "${articles.views.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<String, Integer> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> articleRepository.incrementViewCounts(deltas));
+        } catch (Exception e) {
+            logger.error("Failed to flush {} buffered article view counts, will retry", deltas.size(), e);
+            deltas.forEach((id, delta) -> {
+                pending.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+                inFlight.remove(id);
+            });
+            return;
+        }
+
+        int views = deltas.values().stream().mapToInt(Integer::intValue).sum();
+        flushedViews.increment(views);
+        logger.debug("Flushed {} views across {} articles", views, deltas.size());
+
+        List<Article> counters;
+        try {
+            counters = articleRepository.findViewCounts(deltas.keySet());
+        } catch (Exception e) {
+            logger.warn("Failed to read back flushed view counts, evicting the cached articles", e);
+            Cache articleCache = cacheManager.getCache(ArticleService.ARTICLE_CACHE);
+            if (articleCache != null) {
+                deltas.keySet().forEach(articleCache::evict);
+            }
+            // The write succeeded, so the flushed views are stored now
+            deltas.forEach((id, delta) -> {
+                storedViews.computeIfPresent(id, (key, stored) -> stored + delta);
+                inFlight.remove(id);
+            });
+            return;
+        }
+        refreshCache(deltas.keySet(), counters);
+        Set<String> gone = new HashSet<>(deltas.keySet());
+        for (Article counter : counters) {
+            gone.remove(counter.getId());
+            storedViews.put(counter.getId(), counter.getViewCount() != null ? counter.getViewCount() : 0);
+            inFlight.remove(counter.getId());
+        }
+        gone.forEach(id -> {
+            storedViews.remove(id);
+            inFlight.remove(id);
+        });
+        broadcast(counters);
+    }
+
+    /**
+     * Flushes pending views before the application context closes
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing {} buffered article views before shutdown", totalPending());
+        flush();
+    }
+
+    /**
+     * Collects the deltas to write and marks them in flight
+     *
+     * A delta is added to inFlight before it is taken out of its adder, so
+     * {@link #pending} keeps counting it while the flush runs.
+     */
+    private Map<String, Integer> drain() {
+        Map<String, Integer> deltas = new HashMap<>();
+
+        retired.forEach((id, adder) -> addDelta(deltas, id, adder));
+        // Retired adders that stayed idle are dropped now, and the stored count with them
+        retired.keySet().stream()
+                .filter(id -> !deltas.containsKey(id) && !pending.containsKey(id))
+                .forEach(storedViews::remove);
+
+        Map<String, LongAdder> idle = new HashMap<>();
+        pending.forEach((id, adder) -> {
+            if (!addDelta(deltas, id, adder) && pending.remove(id, adder)) {
+                idle.put(id, adder);
+            }
+        });
+        retired = idle;
+
+        return deltas;
+    }
+
+    /**
+     * Moves the current sum of an adder into deltas and inFlight
+     *
+     * @return true if the adder held any views
+     */
+    private boolean addDelta(Map<String, Integer> deltas, String id, LongAdder adder) {
+        long delta = adder.sum();
+        if (delta <= 0) {
+            return false;
+        }
+        int views = Math.toIntExact(delta);
+        inFlight.merge(id, views, Integer::sum);
+        adder.add(-delta);
+        deltas.merge(id, views, Integer::sum);
+        return true;
+    }
+
+    /**
+     * Copies the read-back viewCount, version and lastModifiedDate into the
+     * cached articles; flushed articles that no longer exist are evicted
+     *
+     * Entries are replaced atomically through the Caffeine map, so a
+     * concurrent eviction by a write to the article is never undone.
+     */
+    @SuppressWarnings("unchecked")
+    private void refreshCache(Set<String> flushedIds, List<Article> counters) {
+        Cache articleCache = cacheManager.getCache(ArticleService.ARTICLE_CACHE);
+        if (articleCache == null) {
+            return;
+        }
+        if (!(articleCache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine)) {
+            flushedIds.forEach(articleCache::evict);
+            return;
+        }
+
+        ConcurrentMap<Object, Object> entries = (ConcurrentMap<Object, Object>) caffeine.asMap();
+        Set<String> gone = new HashSet<>(flushedIds);
+        for (Article counter : counters) {
+            gone.remove(counter.getId());
+            entries.computeIfPresent(counter.getId(), (id, cached) -> {
+                if (!(cached instanceof Article article)) {
+                    return cached;
+                }
+                // Copy so readers holding the cached instance never see it change
+                Article updated = new Article(article);
+                updated.setViewCount(counter.getViewCount());
+                updated.setVersion(counter.getVersion());
+                updated.setLastModifiedDate(counter.getLastModifiedDate());
+                return updated;
+            });
+        }
+        gone.forEach(articleCache::evict);
+    }
+
+    /**
+     * One view count message per flushed article
+     */
+    private void broadcast(List<Article> counters) {
+        try {
+            counters.forEach(counter ->
+                    webSocketController.broadcastViewCount(counter.getId(), counter.getViewCount()));
+        } catch (Exception e) {
+            logger.warn("Failed to broadcast flushed view counts", e);
+        }
+    }
+}
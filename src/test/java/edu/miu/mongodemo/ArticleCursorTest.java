@@ -0,0 +1,48 @@
+package edu.miu.mongodemo;
+
+import edu.miu.mongodemo.repository.ArticleCursor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArticleCursorTest {
+
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        ArticleCursor cursor = new ArticleCursor(
+                LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_000_000),
+                "665f1c2e9b1e8a3d4c2b1a00");
+
+        ArticleCursor decoded = ArticleCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    public void testArticleWithoutPublishedDateRoundTrips() {
+        ArticleCursor cursor = new ArticleCursor(null, "665f1c2e9b1e8a3d4c2b1a00");
+
+        ArticleCursor decoded = ArticleCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertNull(decoded.publishedDate());
+    }
+
+    @Test
+    public void testBlankTokenMeansFirstPage() {
+        assertNull(ArticleCursor.decode(null));
+        assertNull(ArticleCursor.decode(""));
+    }
+
+    @Test
+    public void testMalformedTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursor.decode("%%%"));
+        String withoutId = Base64.getUrlEncoder().encodeToString("2024-05-01T10:15:30|".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursor.decode(withoutId));
+    }
+}
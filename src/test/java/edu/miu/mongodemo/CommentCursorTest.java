@@ -0,0 +1,37 @@
+package edu.miu.mongodemo;
+
+import edu.miu.mongodemo.repository.CommentCursor;
+import edu.miu.mongodemo.repository.CommentSort;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommentCursorTest {
+
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        CommentCursor byDate = new CommentCursor(CommentSort.CREATED_AT,
+                LocalDateTime.of(2024, 5, 1, 10, 15, 30), "665f1c2e9b1e8a3d4c2b1a00");
+        CommentCursor byLikes = new CommentCursor(CommentSort.LIKES, 42, "665f1c2e9b1e8a3d4c2b1a01");
+
+        assertEquals(byDate, CommentCursor.decode(byDate.encode(), CommentSort.CREATED_AT));
+        assertEquals(byLikes, CommentCursor.decode(byLikes.encode(), CommentSort.LIKES));
+    }
+
+    @Test
+    public void testCursorOfOtherSortIsRejected() {
+        String token = new CommentCursor(CommentSort.LIKES, 42, "665f1c2e9b1e8a3d4c2b1a01").encode();
+
+        assertThrows(IllegalArgumentException.class, () -> CommentCursor.decode(token, CommentSort.CREATED_AT));
+    }
+
+    @Test
+    public void testSortParam() {
+        assertEquals(CommentSort.CREATED_AT, CommentSort.fromParam(null));
+        assertEquals(CommentSort.LIKES, CommentSort.fromParam("likes"));
+        assertEquals(CommentSort.CREATED_AT, CommentSort.fromParam("CREATED_AT"));
+        assertThrows(IllegalArgumentException.class, () -> CommentSort.fromParam("author"));
+    }
+}
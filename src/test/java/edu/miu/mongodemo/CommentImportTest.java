@@ -0,0 +1,137 @@
+package edu.miu.mongodemo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.CommentBatchResult;
+import edu.miu.mongodemo.repository.CommentRepository;
+import edu.miu.mongodemo.repository.CommentStatsRepository;
+import edu.miu.mongodemo.service.CommentLikeBuffer;
+import edu.miu.mongodemo.service.CommentService;
+import edu.miu.mongodemo.service.CommentUpdateBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CommentImportTest {
+
+    private static final String VALID = "{\"contentId\":\"a1\",\"contentType\":\"ARTICLE\",\"author\":\"Alice\",\"content\":\"Nice\"}";
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private CommentStatsRepository commentStatsRepository;
+
+    @Mock
+    private CommentLikeBuffer commentLikeBuffer;
+
+    @Mock
+    private CommentUpdateBuffer commentUpdateBuffer;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CommentService commentService;
+
+    private final List<List<Comment>> inserted = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(commentService, "batchChunkSize", 1000);
+        lenient().when(commentRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            List<Comment> comments = invocation.getArgument(0);
+            inserted.add(List.copyOf(comments));
+            for (int i = 0; i < comments.size(); i++) {
+                comments.get(i).setId("id" + i);
+            }
+            return Map.of();
+        });
+    }
+
+    @Test
+    public void testMalformedNdjsonLineFailsOnlyThatItem() throws IOException {
+        List<CommentBatchResult> results = importComments(VALID + "\n{\"contentId\": \n\n" + VALID + "\n", true);
+
+        assertEquals(List.of(0, 1, 2), results.stream().map(CommentBatchResult::index).toList());
+        assertEquals(CommentBatchResult.CREATED, results.get(0).status());
+        assertEquals(CommentBatchResult.FAILED, results.get(1).status());
+        assertTrue(results.get(1).error().startsWith("Malformed comment"));
+        assertEquals(CommentBatchResult.CREATED, results.get(2).status());
+        assertEquals(2, inserted.get(0).size());
+    }
+
+    @Test
+    public void testMappingErrorMidArrayFailsOnlyThatItem() throws IOException {
+        String body = "[" + VALID + ",{\"contentId\":\"a1\",\"likes\":\"many\"}," + VALID + "]";
+
+        List<CommentBatchResult> results = importComments(body, false);
+
+        assertEquals(List.of(0, 1, 2), results.stream().map(CommentBatchResult::index).toList());
+        assertEquals(CommentBatchResult.CREATED, results.get(0).status());
+        assertEquals(CommentBatchResult.FAILED, results.get(1).status());
+        assertTrue(results.get(1).error().startsWith("Malformed comment"));
+        assertEquals(CommentBatchResult.CREATED, results.get(2).status());
+    }
+
+    @Test
+    public void testSyntaxErrorMidArrayEndsTheImport() throws IOException {
+        String body = "[" + VALID + ",{\"contentId\": }," + VALID + "]";
+
+        List<CommentBatchResult> results = importComments(body, false);
+
+        assertEquals(2, results.size());
+        assertEquals(CommentBatchResult.CREATED, results.get(0).status());
+        assertEquals(1, results.get(1).index());
+        assertEquals(CommentBatchResult.FAILED, results.get(1).status());
+        assertEquals(1, inserted.get(0).size());
+    }
+
+    @Test
+    public void testDuplicateIdFailsOnlyThatItem() throws IOException {
+        when(commentRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            List<Comment> comments = invocation.getArgument(0);
+            comments.get(0).setId("id0");
+            comments.get(2).setId("id2");
+            return Map.of(1, "E11000 duplicate key error");
+        });
+
+        List<CommentBatchResult> results = importComments(VALID + "\n" + VALID + "\n" + VALID, true);
+
+        assertEquals(CommentBatchResult.created(0, "id0"), results.get(0));
+        assertEquals(CommentBatchResult.failed(1, "E11000 duplicate key error"), results.get(1));
+        assertEquals(CommentBatchResult.created(2, "id2"), results.get(2));
+        verify(commentUpdateBuffer, times(2)).commentCreated(any(Comment.class));
+    }
+
+    @Test
+    public void testMissingFieldsFailValidation() throws IOException {
+        List<CommentBatchResult> results = importComments("{\"contentId\":\"a1\"}", true);
+
+        assertEquals(CommentBatchResult.failed(0, "contentId, contentType, author and content are required"),
+                results.get(0));
+    }
+
+    private List<CommentBatchResult> importComments(String body, boolean ndjson) throws IOException {
+        List<CommentBatchResult> results = new ArrayList<>();
+        commentService.importComments(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), ndjson,
+                results::add);
+        return results;
+    }
+}
@@ -0,0 +1,173 @@
+package edu.miu.mongodemo;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
+import edu.miu.mongodemo.repository.CommentRepository;
+import edu.miu.mongodemo.repository.CommentStatsRepository;
+import edu.miu.mongodemo.service.CommentLikeBuffer;
+import edu.miu.mongodemo.service.CommentUpdateBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CommentLikeBufferTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private CommentStatsRepository commentStatsRepository;
+
+    @Mock
+    private CommentUpdateBuffer commentUpdateBuffer;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CommentLikeBuffer buffer;
+
+    @BeforeEach
+    public void setUp() {
+        buffer.registerMetrics();
+    }
+
+    @Test
+    public void testFlushWritesAggregatedDeltasAndKeepsTheCount() {
+        buffer.rememberStoredLikes("c1", 10);
+        buffer.record("c1");
+        buffer.record("c1");
+        buffer.record("c2");
+        when(commentRepository.findContentRefs(anyCollection()))
+                .thenReturn(List.of(comment("c1", 12), comment("c2", 1)));
+
+        buffer.flush();
+
+        verify(commentRepository).incrementLikes(Map.of("c1", 2, "c2", 1));
+        verify(commentUpdateBuffer).likesChanged("a1", "c1", 12);
+        verify(commentStatsRepository).applyDeltas(anyList());
+        assertEquals(0, buffer.totalPending());
+        assertEquals(12, buffer.storedLikes("c1"));
+        assertEquals(12, buffer.likes("c1", 0));
+    }
+
+    @Test
+    public void testDrainedLikesStayPendingUntilReadBack() {
+        buffer.rememberStoredLikes("c1", 10);
+        buffer.record("c1");
+        List<Integer> countsDuringFlush = new ArrayList<>();
+        doAnswer(invocation -> {
+            countsDuringFlush.add(buffer.likes("c1", 0));
+            return null;
+        }).when(commentRepository).incrementLikes(anyMap());
+        when(commentRepository.findContentRefs(anyCollection())).thenAnswer(invocation -> {
+            countsDuringFlush.add(buffer.likes("c1", 0));
+            return List.of(comment("c1", 11));
+        });
+
+        buffer.flush();
+
+        assertEquals(List.of(11, 11), countsDuringFlush);
+        assertEquals(11, buffer.likes("c1", 0));
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() {
+        buffer.record("c1");
+        buffer.record("c1");
+        doThrow(new RuntimeException("down")).doNothing().when(commentRepository).incrementLikes(anyMap());
+
+        buffer.flush();
+        assertEquals(2, buffer.pending("c1"));
+        buffer.record("c1");
+        buffer.flush();
+
+        verify(commentRepository).incrementLikes(Map.of("c1", 2));
+        verify(commentRepository).incrementLikes(Map.of("c1", 3));
+        assertEquals(0, buffer.pending("c1"));
+    }
+
+    @Test
+    public void testFailedReadBackAddsTheFlushedLikesToTheStoredCount() {
+        buffer.rememberStoredLikes("c1", 5);
+        buffer.record("c1");
+        when(commentRepository.findContentRefs(anyCollection())).thenThrow(new RuntimeException("down"));
+
+        buffer.flush();
+
+        assertEquals(0, buffer.pending("c1"));
+        assertEquals(6, buffer.likes("c1", 0));
+        verifyNoInteractions(commentStatsRepository, commentUpdateBuffer);
+    }
+
+    @Test
+    public void testDeletedCommentIsForgotten() {
+        buffer.rememberStoredLikes("c1", 5);
+        buffer.record("c1");
+        when(commentRepository.findContentRefs(anyCollection())).thenReturn(List.of());
+
+        buffer.flush();
+
+        assertNull(buffer.storedLikes("c1"));
+        assertEquals(0, buffer.pending("c1"));
+    }
+
+    @Test
+    public void testIdleCommentIsRetiredThenDropped() {
+        buffer.rememberStoredLikes("c1", 5);
+        buffer.record("c1");
+        when(commentRepository.findContentRefs(anyCollection())).thenReturn(List.of(comment("c1", 6)));
+        buffer.flush();
+
+        // Idle for one flush: retired, but still known
+        buffer.flush();
+        assertEquals(6, buffer.storedLikes("c1"));
+
+        // Idle for a second flush: dropped
+        buffer.flush();
+        assertNull(buffer.storedLikes("c1"));
+        verify(commentRepository, times(1)).incrementLikes(anyMap());
+    }
+
+    @Test
+    public void testLikeAfterRetirementIsFlushed() {
+        buffer.record("c1");
+        when(commentRepository.findContentRefs(anyCollection())).thenReturn(List.of(comment("c1", 1)));
+        buffer.flush();
+        buffer.flush();
+
+        buffer.record("c1");
+        buffer.flush();
+
+        verify(commentRepository, times(2)).incrementLikes(Map.of("c1", 1));
+        assertEquals(1, buffer.storedLikes("c1"));
+    }
+
+    @Test
+    public void testNothingToFlush() {
+        buffer.flush();
+
+        verify(commentRepository, never()).incrementLikes(any(Map.class));
+    }
+
+    private static Comment comment(String id, int likes) {
+        Comment comment = new Comment("a1", ContentType.ARTICLE, null, null);
+        comment.setId(id);
+        comment.setLikes(likes);
+        return comment;
+    }
+}
@@ -0,0 +1,78 @@
+package edu.miu.mongodemo;
+
+import edu.miu.mongodemo.model.Comment;
+import edu.miu.mongodemo.model.ContentType;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommentStorageLayoutTest {
+
+    private MongoMappingContext mappingContext;
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    public void testCommentIsStoredWithShortFieldNames() {
+        Comment comment = new Comment("665f1c2e9b1e8a3d4c2b1a00", ContentType.NEWS, "Alice", "Nice");
+        comment.setLikes(3);
+
+        Document stored = new Document();
+        converter.write(comment, stored);
+
+        assertEquals(Set.of("cid", "ct", "au", "tx", "ts", "lk", "ap", "_class"), stored.keySet());
+        assertEquals("NEWS", stored.get("ct"));
+        assertEquals(3, stored.get("lk"));
+        assertEquals(false, stored.get("ap"));
+        assertEquals(Comment.TYPE_ALIAS, stored.get("_class"));
+    }
+
+    @Test
+    public void testStoredCommentReadsBack() {
+        Comment comment = new Comment("665f1c2e9b1e8a3d4c2b1a00", ContentType.ARTICLE, "Alice", "Nice");
+        comment.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 15, 30));
+        Document stored = new Document();
+        converter.write(comment, stored);
+
+        Comment read = converter.read(Comment.class, stored);
+
+        assertEquals(ContentType.ARTICLE, read.getContentType());
+        assertEquals(comment.getCreatedAt(), read.getCreatedAt());
+        assertEquals("Nice", read.getContent());
+        assertNull(read.getIsRejected());
+    }
+
+    @Test
+    public void testPropertyQueriesAreMappedToShortFieldNames() {
+        Query query = Query.query(Criteria.where("contentId").is("x")
+                .and("contentType").in(Comment.CONTENT_TYPES)
+                .and("isApproved").is(false));
+
+        Document mapped = new QueryMapper(converter).getMappedObject(
+                query.getQueryObject(), mappingContext.getPersistentEntity(Comment.class));
+
+        assertEquals(Set.of("cid", "ct", "ap"), mapped.keySet());
+    }
+}
@@ -0,0 +1,43 @@
+package edu.miu.mongodemo;
+
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.model.DocumentVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentVersionTest {
+
+    @Test
+    public void testStrongETagFromVersion() {
+        assertEquals("\"7\"", new DocumentVersion(7L, null).eTag());
+    }
+
+    @Test
+    public void testLastModifiedMillis() {
+        LocalDateTime modified = LocalDateTime.of(2024, 5, 1, 10, 15, 30);
+        long expected = modified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        assertEquals(expected, new DocumentVersion(1L, modified).lastModifiedMillis());
+    }
+
+    @Test
+    public void testUnversionedDocumentHasNoValidators() {
+        DocumentVersion version = DocumentVersion.of(new Article());
+
+        assertNull(version.eTag());
+        assertEquals(-1, version.lastModifiedMillis());
+    }
+
+    @Test
+    public void testCopiedArticleKeepsVersion() {
+        Article article = new Article("Title", "Content", "Author");
+        article.setVersion(4L);
+        article.setLastModifiedDate(LocalDateTime.of(2024, 5, 1, 10, 15));
+
+        assertEquals(DocumentVersion.of(article), DocumentVersion.of(new Article(article)));
+    }
+}
@@ -0,0 +1,66 @@
+package edu.miu.mongodemo;
+
+import edu.miu.mongodemo.model.NewsSummary;
+import edu.miu.mongodemo.service.FrontPageRanking;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrontPageRankingTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private final FrontPageRanking ranking = new FrontPageRanking(3, 2, Duration.ofHours(12));
+
+    @Test
+    public void testRecencyDecaysPriority() {
+        NewsSummary freshLow = news("fresh", "TECH", 5, NOW.minusHours(1));
+        NewsSummary oldHigh = news("old", "TECH", 10, NOW.minusHours(36));
+
+        List<NewsSummary> feed = ranking.rank(List.of(oldHigh, freshLow), NOW);
+
+        assertEquals(List.of("fresh", "old"), ids(feed));
+        assertEquals(5.0, ranking.score(news("now", "TECH", 5, NOW), NOW), 1e-9);
+        assertEquals(5.0, ranking.score(news("halved", "TECH", 10, NOW.minusHours(12)), NOW), 1e-9);
+    }
+
+    @Test
+    public void testCategoryQuotaAndSize() {
+        List<NewsSummary> feed = ranking.rank(List.of(
+                news("t1", "TECH", 10, NOW),
+                news("t2", "TECH", 9, NOW),
+                news("t3", "TECH", 8, NOW),
+                news("s1", "SPORTS", 2, NOW),
+                news("s2", "SPORTS", 1, NOW)), NOW);
+
+        assertEquals(List.of("t1", "t2", "s1"), ids(feed));
+    }
+
+    @Test
+    public void testFutureAndExpiredStoriesAreLeftOut() {
+        NewsSummary scheduled = news("scheduled", "TECH", 10, NOW.plusHours(1));
+        NewsSummary expired = news("expired", "TECH", 10, NOW.minusHours(1));
+        expired.setExpiryDate(NOW.minusMinutes(1));
+        NewsSummary live = news("live", "TECH", 1, NOW.minusHours(1));
+        live.setExpiryDate(NOW.plusDays(1));
+
+        assertEquals(List.of("live"), ids(ranking.rank(List.of(scheduled, expired, live), NOW)));
+    }
+
+    private static NewsSummary news(String id, String category, int priority, LocalDateTime publishedDate) {
+        NewsSummary news = new NewsSummary();
+        news.setId(id);
+        news.setCategory(category);
+        news.setPriority(priority);
+        news.setPublishedDate(publishedDate);
+        return news;
+    }
+
+    private static List<String> ids(List<NewsSummary> feed) {
+        return feed.stream().map(NewsSummary::getId).toList();
+    }
+}
@@ -0,0 +1,196 @@
+package edu.miu.mongodemo;
+
+import edu.miu.mongodemo.controller.WebSocketArticleController;
+import edu.miu.mongodemo.model.Article;
+import edu.miu.mongodemo.repository.ArticleRepository;
+import edu.miu.mongodemo.service.ArticleService;
+import edu.miu.mongodemo.service.ViewCountBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ViewCountBufferTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private WebSocketArticleController webSocketController;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CacheManager cacheManager = new CaffeineCacheManager(ArticleService.ARTICLE_CACHE);
+
+    @InjectMocks
+    private ViewCountBuffer buffer;
+
+    @BeforeEach
+    public void setUp() {
+        buffer.registerMetrics();
+    }
+
+    @Test
+    public void testFlushWritesAggregatedDeltasAndRefreshesTheCache() {
+        buffer.rememberStoredViews("a1", 10);
+        buffer.record("a1");
+        buffer.record("a1");
+        buffer.record("a2");
+        articleCache().put("a1", article("a1", 10, 3L));
+        when(articleRepository.findViewCounts(anyCollection()))
+                .thenReturn(List.of(article("a1", 12, 4L), article("a2", 1, 1L)));
+
+        buffer.flush();
+
+        verify(articleRepository).incrementViewCounts(Map.of("a1", 2, "a2", 1));
+        verify(webSocketController).broadcastViewCount("a1", 12);
+        verify(webSocketController).broadcastViewCount("a2", 1);
+        assertEquals(0, buffer.totalPending());
+        assertEquals(12, buffer.storedViews("a1"));
+        assertEquals(12, buffer.views("a1", 0));
+        Article cached = articleCache().get("a1", Article.class);
+        assertEquals(12, cached.getViewCount());
+        assertEquals(4L, cached.getVersion());
+    }
+
+    @Test
+    public void testDrainedViewsStayPendingUntilReadBack() {
+        buffer.rememberStoredViews("a1", 10);
+        buffer.record("a1");
+        List<Integer> countsDuringFlush = new ArrayList<>();
+        doAnswer(invocation -> {
+            countsDuringFlush.add(buffer.views("a1", 0));
+            return null;
+        }).when(articleRepository).incrementViewCounts(anyMap());
+        when(articleRepository.findViewCounts(anyCollection())).thenAnswer(invocation -> {
+            countsDuringFlush.add(buffer.views("a1", 0));
+            return List.of(article("a1", 11, 1L));
+        });
+
+        buffer.flush();
+
+        assertEquals(List.of(11, 11), countsDuringFlush);
+        assertEquals(11, buffer.views("a1", 0));
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() {
+        buffer.record("a1");
+        buffer.record("a1");
+        doThrow(new RuntimeException("down")).doNothing().when(articleRepository).incrementViewCounts(anyMap());
+
+        buffer.flush();
+        assertEquals(2, buffer.pending("a1"));
+        buffer.record("a1");
+        buffer.flush();
+
+        verify(articleRepository).incrementViewCounts(Map.of("a1", 2));
+        verify(articleRepository).incrementViewCounts(Map.of("a1", 3));
+        assertEquals(0, buffer.pending("a1"));
+    }
+
+    @Test
+    public void testFailedReadBackEvictsAndAddsTheFlushedViews() {
+        buffer.rememberStoredViews("a1", 5);
+        buffer.record("a1");
+        articleCache().put("a1", article("a1", 5, 1L));
+        when(articleRepository.findViewCounts(anyCollection())).thenThrow(new RuntimeException("down"));
+
+        buffer.flush();
+
+        assertEquals(0, buffer.pending("a1"));
+        assertEquals(6, buffer.views("a1", 0));
+        assertNull(articleCache().get("a1"));
+        verifyNoInteractions(webSocketController);
+    }
+
+    @Test
+    public void testDeletedArticleIsForgottenAndEvicted() {
+        buffer.rememberStoredViews("a1", 5);
+        buffer.record("a1");
+        articleCache().put("a1", article("a1", 5, 1L));
+        when(articleRepository.findViewCounts(anyCollection())).thenReturn(List.of());
+
+        buffer.flush();
+
+        assertNull(buffer.storedViews("a1"));
+        assertEquals(0, buffer.pending("a1"));
+        assertNull(articleCache().get("a1"));
+    }
+
+    @Test
+    public void testNullStoredCountCountsAsZero() {
+        buffer.rememberStoredViews("a1", null);
+        buffer.record("a1");
+
+        assertEquals(1, buffer.views("a1", 0));
+    }
+
+    @Test
+    public void testIdleArticleIsRetiredThenDropped() {
+        buffer.rememberStoredViews("a1", 5);
+        buffer.record("a1");
+        when(articleRepository.findViewCounts(anyCollection())).thenReturn(List.of(article("a1", 6, 1L)));
+        buffer.flush();
+
+        // Idle for one flush: retired, but still known
+        buffer.flush();
+        assertEquals(6, buffer.storedViews("a1"));
+
+        // Idle for a second flush: dropped
+        buffer.flush();
+        assertNull(buffer.storedViews("a1"));
+        verify(articleRepository, times(1)).incrementViewCounts(anyMap());
+    }
+
+    @Test
+    public void testViewAfterRetirementIsFlushed() {
+        buffer.record("a1");
+        when(articleRepository.findViewCounts(anyCollection())).thenReturn(List.of(article("a1", 1, 1L)));
+        buffer.flush();
+        buffer.flush();
+
+        buffer.record("a1");
+        buffer.flush();
+
+        verify(articleRepository, times(2)).incrementViewCounts(Map.of("a1", 1));
+        assertEquals(1, buffer.storedViews("a1"));
+    }
+
+    @Test
+    public void testNothingToFlush() {
+        buffer.flush();
+
+        verify(articleRepository, never()).incrementViewCounts(any(Map.class));
+    }
+
+    private Cache articleCache() {
+        return cacheManager.getCache(ArticleService.ARTICLE_CACHE);
+    }
+
+    private static Article article(String id, Integer viewCount, Long version) {
+        Article article = new Article("Title", "Content", "Author");
+        article.setId(id);
+        article.setViewCount(viewCount);
+        article.setVersion(version);
+        return article;
+    }
+}